@@ -0,0 +1,121 @@
+package util.collections.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file with a baseline and exits with a non-zero
+ * status if any benchmark regressed by more than the given tolerance.
+ * <p>
+ * Usage: {@code BenchmarkGate <baseline.csv> <current.csv> [tolerance]}, where
+ * the tolerance is a fraction and defaults to {@code 0.10}. Benchmarks that
+ * only appear in one of the files are reported but do not fail the gate.
+ * </p>
+ */
+public final class BenchmarkGate {
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkGate <baseline.csv> <current.csv> [tolerance]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", entry.getKey(), after.score, after.unit);
+                continue;
+            }
+            // throughput modes improve upwards, time modes improve downwards
+            double change = after.higherIsBetter()
+                    ? (before.score - after.score) / before.score
+                    : (after.score - before.score) / before.score;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "REGRESSED" : "OK",
+                    entry.getKey(), before.score, after.score, after.unit, change * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("MISSING    %s%n", key);
+            }
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private record Result(String mode, double score, String unit) {
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    private static Map<String, Result> read(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = split(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            StringBuilder key = new StringBuilder(fields.get(benchmark));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            results.put(key.toString(), new Result(fields.get(mode), Double.parseDouble(fields.get(score)),
+                    fields.get(unit)));
+        }
+        return results;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,111 @@
+package util.collections.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.collections.ArrayDeque;
+
+/**
+ * Benchmarks {@link ArrayDeque} against {@link java.util.ArrayDeque}.
+ * <p>
+ * Insertions are paired with a removal at the same end so that the deque
+ * keeps its size across invocations.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DequeBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private ArrayDeque<Integer> deque;
+    private java.util.ArrayDeque<Integer> jdkDeque;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        deque = new ArrayDeque<>();
+        jdkDeque = new java.util.ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(i);
+            jdkDeque.addLast(i);
+        }
+    }
+
+    @Benchmark
+    public Object addRemoveFirst() {
+        deque.addFirst(-1);
+        return deque.removeFirst();
+    }
+
+    @Benchmark
+    public Object addRemoveLast() {
+        deque.addLast(-1);
+        return deque.removeLast();
+    }
+
+    @Benchmark
+    public Object enqueueDequeue() {
+        deque.enqueue(deque.dequeue());
+        return deque;
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer element : deque) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return deque.contains(-1);
+    }
+
+    @Benchmark
+    public Object jdkAddRemoveFirst() {
+        jdkDeque.addFirst(-1);
+        return jdkDeque.removeFirst();
+    }
+
+    @Benchmark
+    public Object jdkAddRemoveLast() {
+        jdkDeque.addLast(-1);
+        return jdkDeque.removeLast();
+    }
+
+    @Benchmark
+    public Object jdkEnqueueDequeue() {
+        jdkDeque.addLast(jdkDeque.removeFirst());
+        return jdkDeque;
+    }
+
+    @Benchmark
+    public void jdkIterate(Blackhole blackhole) {
+        for (Integer element : jdkDeque) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public boolean jdkContainsMissing() {
+        return jdkDeque.contains(-1);
+    }
+}
@@ -0,0 +1,110 @@
+package util.collections.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.collections.ArrayDeque;
+import util.collections.ArrayList;
+
+/**
+ * Benchmarks filling the array-backed collections from empty, both by letting
+ * them grow and after presizing them with {@code ensureCapacity}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GrowthBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private static final Integer ELEMENT = 1;
+
+    @Benchmark
+    public Object arrayListGrow() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.addLast(ELEMENT);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object arrayListPresized() {
+        ArrayList<Integer> list = new ArrayList<>();
+        list.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            list.addLast(ELEMENT);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object arrayDequeGrow() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ELEMENT);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public Object arrayDequePresized() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        deque.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ELEMENT);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public Object jdkArrayListGrow() {
+        java.util.ArrayList<Integer> list = new java.util.ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(ELEMENT);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object jdkArrayListPresized() {
+        java.util.ArrayList<Integer> list = new java.util.ArrayList<>();
+        list.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            list.add(ELEMENT);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object jdkArrayDequeGrow() {
+        java.util.ArrayDeque<Integer> deque = new java.util.ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ELEMENT);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public Object jdkArrayDequePresized() {
+        java.util.ArrayDeque<Integer> deque = new java.util.ArrayDeque<>(size);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ELEMENT);
+        }
+        return deque;
+    }
+}
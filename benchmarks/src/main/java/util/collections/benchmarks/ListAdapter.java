@@ -0,0 +1,135 @@
+package util.collections.benchmarks;
+
+import java.util.function.Consumer;
+
+/**
+ * Gives the list implementations under test a common shape, so each
+ * benchmark method is written once for all of them.
+ */
+abstract class ListAdapter {
+
+    abstract void add(Integer element);
+
+    abstract void add(int index, Integer element);
+
+    abstract Object remove(int index);
+
+    abstract Object get(int index);
+
+    abstract boolean contains(Integer element);
+
+    abstract void forEach(Consumer<Object> consumer);
+
+    static ListAdapter create(String implementation) {
+        return switch (implementation) {
+            case "ArrayList" -> new Library(new util.collections.ArrayList<>());
+            case "LinkedList" -> new Library(new util.collections.LinkedList<>());
+            case "GapList" -> new Library(new util.collections.GapList<>());
+            case "ChunkedList" -> new Library(new util.collections.ChunkedList<>());
+            case "TreeList" -> new Library(new util.collections.TreeList<>());
+            case "java.util.ArrayList" -> new Jdk(new java.util.ArrayList<>());
+            case "java.util.LinkedList" -> new Jdk(new java.util.LinkedList<>());
+            default -> throw new IllegalArgumentException(implementation);
+        };
+    }
+
+    private static final class Library extends ListAdapter {
+        private final util.collections.List<Integer> list;
+
+        Library(util.collections.List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        void add(Integer element) {
+            list.add(element);
+        }
+
+        @Override
+        void add(int index, Integer element) {
+            list.add(index, element);
+        }
+
+        @Override
+        Object remove(int index) {
+            return list.remove(index);
+        }
+
+        @Override
+        Object get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        boolean contains(Integer element) {
+            return list.contains(element);
+        }
+
+        @Override
+        void forEach(Consumer<Object> consumer) {
+            for (Integer element : list) {
+                consumer.accept(element);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Library other && list.equals(other.list);
+        }
+
+        @Override
+        public int hashCode() {
+            return list.hashCode();
+        }
+    }
+
+    private static final class Jdk extends ListAdapter {
+        private final java.util.List<Integer> list;
+
+        Jdk(java.util.List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        void add(Integer element) {
+            list.add(element);
+        }
+
+        @Override
+        void add(int index, Integer element) {
+            list.add(index, element);
+        }
+
+        @Override
+        Object remove(int index) {
+            return list.remove(index);
+        }
+
+        @Override
+        Object get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        boolean contains(Integer element) {
+            return list.contains(element);
+        }
+
+        @Override
+        void forEach(Consumer<Object> consumer) {
+            for (Integer element : list) {
+                consumer.accept(element);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Jdk other && list.equals(other.list);
+        }
+
+        @Override
+        public int hashCode() {
+            return list.hashCode();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package util.collections.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link util.collections.List} implementations against their
+ * {@code java.util} counterparts.
+ * <p>
+ * Insertions are paired with a removal at the same position so that the list
+ * keeps its size across invocations.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    @Param({ "ArrayList", "LinkedList", "GapList", "ChunkedList", "TreeList", "java.util.ArrayList", "java.util.LinkedList" })
+    public String implementation;
+
+    private ListAdapter list;
+    private ListAdapter copy;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = ListAdapter.create(implementation);
+        copy = ListAdapter.create(implementation);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+            copy.add(i);
+        }
+        Random random = new Random(42);
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Object addRemoveHead() {
+        list.add(0, -1);
+        return list.remove(0);
+    }
+
+    @Benchmark
+    public Object addRemoveMiddle() {
+        list.add(size >> 1, -1);
+        return list.remove(size >> 1);
+    }
+
+    @Benchmark
+    public Object addRemoveTail() {
+        list.add(size, -1);
+        return list.remove(size);
+    }
+
+    @Benchmark
+    public Object randomGet() {
+        return list.get(indices[next++ & (indices.length - 1)]);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        list.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return list.contains(-1);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return list.equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeAll() {
+        return list.hashCode();
+    }
+}
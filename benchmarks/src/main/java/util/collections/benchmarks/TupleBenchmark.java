@@ -0,0 +1,176 @@
+package util.collections.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import util.collections.Tuple;
+
+/**
+ * Benchmarks {@link Tuple} against immutable {@code java.util} lists.
+ * <p>
+ * The baseline for the functional updates is a copy-on-write
+ * {@code java.util.List}, which is what immutable JDK lists require.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TupleBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    public int size;
+
+    private Tuple<Integer> tuple;
+    private Tuple<Integer> tupleCopy;
+    private java.util.List<Integer> jdkList;
+    private int[] indices;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Tuple.Builder<Integer> builder = Tuple.builder();
+        Tuple.Builder<Integer> copyBuilder = Tuple.builder();
+        java.util.ArrayList<Integer> list = new java.util.ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i);
+            copyBuilder.add(i);
+            list.add(i);
+        }
+        tuple = builder.build();
+        tupleCopy = copyBuilder.build();
+        jdkList = java.util.List.copyOf(list);
+        Random random = new Random(42);
+        indices = new int[1024];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(size);
+        }
+    }
+
+    private int nextIndex() {
+        return indices[next++ & (indices.length - 1)];
+    }
+
+    @Benchmark
+    public Object set() {
+        return tuple.set(nextIndex(), -1);
+    }
+
+    @Benchmark
+    public Object addFirst() {
+        return tuple.addFirst(-1);
+    }
+
+    @Benchmark
+    public Object addMiddle() {
+        return tuple.add(size >> 1, -1);
+    }
+
+    @Benchmark
+    public Object addLast() {
+        return tuple.addLast(-1);
+    }
+
+    @Benchmark
+    public Object removeFirst() {
+        return tuple.removeFirst();
+    }
+
+    @Benchmark
+    public Object removeMiddle() {
+        return tuple.remove(size >> 1);
+    }
+
+    @Benchmark
+    public Object removeLast() {
+        return tuple.removeLast();
+    }
+
+    @Benchmark
+    public Object randomGet() {
+        return tuple.get(nextIndex());
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer element : tuple) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return tuple.contains(-1);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return tuple.equals(tupleCopy);
+    }
+
+    @Benchmark
+    public int hashCodeAll() {
+        return tuple.hashCode();
+    }
+
+    @Benchmark
+    public Object jdkSet() {
+        java.util.ArrayList<Integer> copy = new java.util.ArrayList<>(jdkList);
+        copy.set(nextIndex(), -1);
+        return java.util.Collections.unmodifiableList(copy);
+    }
+
+    @Benchmark
+    public Object jdkAddFirst() {
+        java.util.ArrayList<Integer> copy = new java.util.ArrayList<>(size + 1);
+        copy.add(-1);
+        copy.addAll(jdkList);
+        return java.util.Collections.unmodifiableList(copy);
+    }
+
+    @Benchmark
+    public Object jdkAddLast() {
+        java.util.ArrayList<Integer> copy = new java.util.ArrayList<>(size + 1);
+        copy.addAll(jdkList);
+        copy.add(-1);
+        return java.util.Collections.unmodifiableList(copy);
+    }
+
+    @Benchmark
+    public Object jdkRandomGet() {
+        return jdkList.get(nextIndex());
+    }
+
+    @Benchmark
+    public void jdkIterate(Blackhole blackhole) {
+        for (Integer element : jdkList) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public boolean jdkContainsMissing() {
+        return jdkList.contains(-1);
+    }
+
+    @Benchmark
+    public int jdkHashCodeAll() {
+        return jdkList.hashCode();
+    }
+}
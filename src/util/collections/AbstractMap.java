@@ -0,0 +1,59 @@
+package util.collections;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Provides a base implementation of the {@link ReadOnlyMap} interface.
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public abstract class AbstractMap<K, V> implements ReadOnlyMap<K, V> {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof ReadOnlyMap<?, ?> map) {
+            if (this.size() != map.size()) {
+                return false;
+            }
+            ReadOnlyMap<Object, Object> other = (ReadOnlyMap<Object, Object>) map;
+            try {
+                for (Entry<K, V> entry : this) {
+                    if (!other.containsKey(entry.getKey())
+                            || !Objects.equals(entry.getValue(), other.get(entry.getKey()))) {
+                        return false;
+                    }
+                }
+            } catch (ClassCastException e) {
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (Entry<K, V> entry : this) {
+            result += entry.hashCode();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", getClass().getSimpleName() + " [", "]");
+        for (Entry<K, V> entry : this) {
+            sj.add((entry.getKey() == this ? "this" : Objects.toString(entry.getKey())) + "="
+                    + (entry.getValue() == this ? "this" : Objects.toString(entry.getValue())));
+        }
+        return sj.toString();
+    }
+
+}
@@ -0,0 +1,53 @@
+package util.collections;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Provides a base implementation of the {@link ReadOnlySet} interface.
+ *
+ * @param <E> the type of elements in this set
+ */
+public abstract class AbstractSet<E> implements ReadOnlySet<E> {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof ReadOnlySet<?> set) {
+            if (this.size() != set.size()) {
+                return false;
+            }
+            try {
+                return ((ReadOnlySet<Object>) set).containsAll(this);
+            } catch (ClassCastException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (E e : this) {
+            result += Objects.hashCode(e);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", getClass().getSimpleName() + " [", "]");
+        for (E e : this) {
+            if (e == this)
+                sj.add("this");
+            else
+                sj.add(Objects.toString(e));
+        }
+        return sj.toString();
+    }
+
+}
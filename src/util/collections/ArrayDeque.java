@@ -4,7 +4,9 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  * Implements a double-ended queue using an array.
@@ -12,32 +14,39 @@ import java.util.StringJoiner;
  * This implementation uses dynamic array resizing and performs O(1) remove and
  * insert operations, given no allocation was required.
  * <p>
+ * The capacity is always a power of two, so positions in the ring buffer are
+ * wrapped with a bit mask rather than a division. Elements can also be read by
+ * index in constant time, which lets the deque serve as a {@link ReadOnlyList}.
+ * </p>
  * 
  * @param <E> the type of elements in the deque
  */
-public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
+public final class ArrayDeque<E> extends AbstractList<E> implements Deque<E>, ReadOnlyList<E>, DynamicArray {
+
+    private static final int MAX_CAPACITY = 1 << 30;
 
     private E[] array;
     private int front;
-    private int back;
     private int size;
+    private GrowthPolicy growthPolicy = GrowthPolicy.DOUBLING;
+    private final Instrumentation.Probe probe = Instrumentation.probe(ArrayDeque.class);
 
     /**
-     * Constructs an empty deque with an initial capacity of 10.
+     * Constructs an empty deque with an initial capacity of 16.
      */
     public ArrayDeque() {
-        this(10);
+        this(16);
     }
 
     /**
-     * Constructs an empty deque with the specified initial capacity.
+     * Constructs an empty deque with the specified initial capacity, rounded
+     * up to a power of two.
      * 
      * @param capacity the initial capacity
      */
     public ArrayDeque(int capacity) {
         ensureCapacity(capacity);
         front = 0;
-        back = -1;
         size = 0;
     }
 
@@ -45,10 +54,16 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
      * Removes all of the elements from this deque.
      */
     public void clear() {
-        Arrays.fill(array, null);
+        int end = front + size;
+        if (end <= array.length) {
+            Arrays.fill(array, front, end, null);
+        } else {
+            Arrays.fill(array, front, array.length, null);
+            Arrays.fill(array, 0, end - array.length, null);
+        }
         front = 0;
-        back = -1;
         size = 0;
+        shrinkIfSparse();
     }
 
     @Override
@@ -56,6 +71,17 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
         return size;
     }
 
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (Instrumentation.ENABLED) {
+            probe.operation();
+        }
+        return array[(front + index) & (array.length - 1)];
+    }
+
     @Override
     public Iterator<E> iterator() {
         class QueueIterator implements Iterator<E> {
@@ -72,30 +98,138 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return array[(front + i++) % array.length];
+                return array[(front + i++) & (array.length - 1)];
             }
 
         }
         return new QueueIterator();
     }
 
+    /**
+     * Returns a {@link Spliterator} over the elements of this deque that splits
+     * the ring buffer by index into halves of known size.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        class DequeSpliterator implements Spliterator<E> {
+            private int index;
+            private final int fence;
+
+            DequeSpliterator(int index, int fence) {
+                this.index = index;
+                this.fence = fence;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                if (index >= fence) {
+                    return false;
+                }
+                action.accept(array[(front + index++) & (array.length - 1)]);
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super E> action) {
+                E[] a = array;
+                int mask = a.length - 1;
+                for (int i = index; i < fence; i++) {
+                    action.accept(a[(front + i) & mask]);
+                }
+                index = fence;
+            }
+
+            @Override
+            public Spliterator<E> trySplit() {
+                int middle = (index + fence) >>> 1;
+                if (middle <= index) {
+                    return null;
+                }
+                Spliterator<E> prefix = new DequeSpliterator(index, middle);
+                index = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return fence - index;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED;
+            }
+        }
+
+        return new DequeSpliterator(0, size);
+    }
+
     @SuppressWarnings("unchecked")
     public void ensureCapacity(int minCapacity) {
+        if (minCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full");
+        }
         if (array == null) {
-            array = (E[]) new Object[Math.max(1, minCapacity)];
+            array = (E[]) new Object[powerOfTwoAtLeast(minCapacity)];
+        } else if (minCapacity > array.length) {
+            int newCapacity = Math.min(growthPolicy.grow(array.length, minCapacity), MAX_CAPACITY);
+            resize(powerOfTwoAtLeast(Math.max(newCapacity, minCapacity)));
         }
-        if (minCapacity > array.length) {
-            // * 1.5
-            E[] newArray = (E[]) new Object[Math.max(minCapacity, array.length + (array.length >> 1))];
-            for (int i = 0; i < size; i++) {
-                newArray[i] = array[(front + i) % array.length];
-            }
-            array = newArray;
-            front = 0;
-            back = size - 1;
+    }
+
+    @Override
+    public void trimToSize() {
+        int newCapacity = powerOfTwoAtLeast(size);
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the policy deciding how the deque grows and shrinks. The
+     * capacities it returns are rounded up to a power of two.
+     * 
+     * @return the growth policy
+     */
+    @Override
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    @Override
+    public void setGrowthPolicy(GrowthPolicy policy) {
+        growthPolicy = Objects.requireNonNull(policy);
+    }
+
+    private void shrinkIfSparse() {
+        int newCapacity = powerOfTwoAtLeast(Math.max(growthPolicy.shrink(array.length, size), size));
+        if (newCapacity < array.length) {
+            resize(newCapacity);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void resize(int newCapacity) {
+        E[] newArray = (E[]) new Object[newCapacity];
+        // unwrap the ring: the elements from front to the end of the
+        // array, followed by the elements that wrapped around to the start
+        int firstPart = Math.min(size, array.length - front);
+        System.arraycopy(array, front, newArray, 0, firstPart);
+        System.arraycopy(array, 0, newArray, firstPart, size - firstPart);
+        if (Instrumentation.ENABLED) {
+            probe.resized(array.length, newCapacity, size);
+        }
+        array = newArray;
+        front = 0;
+    }
+
+    private static int powerOfTwoAtLeast(int capacity) {
+        if (capacity <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
     /**
      * Returns the capacity of the deque.
      * 
@@ -130,25 +264,33 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
         if (size == 0) {
             throw new NoSuchElementException();
         }
-        return array[back];
+        return array[(front + size - 1) & (array.length - 1)];
+    }
+
+    @Override
+    public E peek() throws NoSuchElementException {
+        return getFirst();
     }
 
     @Override
     public void addFirst(E element) {
         ensureCapacity(size + 1);
-
-        front = (front - 1 + array.length) % array.length;
+        front = (front - 1) & (array.length - 1);
         array[front] = element;
         size++;
-
+        if (Instrumentation.ENABLED) {
+            probe.added(size, array.length);
+        }
     }
 
     @Override
     public void addLast(E element) {
         ensureCapacity(size + 1);
-        back = (back + 1) % array.length;
-        array[back] = element;
+        array[(front + size) & (array.length - 1)] = element;
         size++;
+        if (Instrumentation.ENABLED) {
+            probe.added(size, array.length);
+        }
     }
 
     @Override
@@ -158,8 +300,12 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
         }
         E element = array[front];
         array[front] = null;
-        front = (front + 1) % array.length;
+        front = (front + 1) & (array.length - 1);
         size--;
+        if (Instrumentation.ENABLED) {
+            probe.operation();
+        }
+        shrinkIfSparse();
         return element;
     }
 
@@ -168,10 +314,14 @@ public final class ArrayDeque<E> implements Deque<E>, DynamicArray {
         if (size == 0) {
             throw new NoSuchElementException();
         }
+        int back = (front + size - 1) & (array.length - 1);
         E element = array[back];
         array[back] = null;
-        back = (back - 1 + array.length) % array.length;
         size--;
+        if (Instrumentation.ENABLED) {
+            probe.operation();
+        }
+        shrinkIfSparse();
         return element;
     }
 
@@ -1,6 +1,12 @@
 package util.collections;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * An implementation of the {@link List} interface backed by an array.
@@ -14,6 +20,8 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 	private static final int DEFAULT_CAPACITY = 10;
 	private E[] array;
 	private int size;
+	private GrowthPolicy growthPolicy = GrowthPolicy.ONE_AND_A_HALF;
+	private final Instrumentation.Probe probe = Instrumentation.probe(ArrayList.class);
 
 	/**
 	 * Create an {@link ArrayList} with the specified elements.
@@ -76,6 +84,9 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		System.arraycopy(array, index, array, index + 1, size - index);
 		array[index] = element;
 		size++;
+		if (Instrumentation.ENABLED) {
+			probe.added(size, array.length);
+		}
 	}
 
 	@Override
@@ -85,7 +96,12 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		}
 		E old = array[index];
 		System.arraycopy(array, index + 1, array, index, size - index - 1);
-		size--;
+		// clear the vacated slot so the removed element can be collected
+		array[--size] = null;
+		if (Instrumentation.ENABLED) {
+			probe.operation();
+		}
+		shrinkIfSparse();
 		return old;
 	}
 
@@ -96,6 +112,9 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		}
 		E old = array[index];
 		array[index] = element;
+		if (Instrumentation.ENABLED) {
+			probe.operation();
+		}
 		return old;
 	}
 
@@ -104,13 +123,137 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		if (index < 0 || index >= size) {
 			throw new IndexOutOfBoundsException();
 		}
+		if (Instrumentation.ENABLED) {
+			probe.operation();
+		}
 		return array[index];
 	}
 
+	/**
+	 * Adds all of the elements of the specified iterable at the specified
+	 * position in this list. The elements after the index are shifted once,
+	 * and the backing array grows at most once.
+	 * 
+	 * @param index    the index at which the first element is to be added
+	 * @param iterable the elements to add
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	@Override
+	public void addAll(int index, Iterable<? extends E> iterable) throws IndexOutOfBoundsException {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		Object[] elements;
+		if (iterable instanceof ArrayList<? extends E> list) {
+			elements = Arrays.copyOf(list.array, list.size);
+		} else {
+			ArrayList<E> buffer = iterable instanceof ReadOnlyCollection<? extends E> collection
+					? new ArrayList<>(Math.max(collection.size(), 1))
+					: new ArrayList<>();
+			for (E element : iterable) {
+				buffer.addLast(element);
+			}
+			elements = buffer.array;
+			if (buffer.size != elements.length) {
+				elements = Arrays.copyOf(elements, buffer.size);
+			}
+		}
+		int count = elements.length;
+		ensureCapacity(size + count);
+		System.arraycopy(array, index, array, index + count, size - index);
+		System.arraycopy(elements, 0, array, index, count);
+		size += count;
+		if (Instrumentation.ENABLED) {
+			probe.added(size, array.length);
+		}
+	}
+
+	@Override
+	public void removeRange(int from, int to) throws IndexOutOfBoundsException {
+		if (from < 0 || to > size || from > to) {
+			throw new IndexOutOfBoundsException();
+		}
+		System.arraycopy(array, to, array, from, size - to);
+		int newSize = size - (to - from);
+		Arrays.fill(array, newSize, size, null);
+		size = newSize;
+		shrinkIfSparse();
+	}
+
+	/**
+	 * Removes all of the elements of this list that satisfy the specified
+	 * predicate, compacting the remaining elements in a single pass.
+	 * 
+	 * @param filter the predicate selecting the elements to remove
+	 * @return {@code true} if any elements were removed, {@code false}
+	 *         otherwise
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		int read = 0;
+		int write = 0;
+		try {
+			for (; read < size; read++) {
+				E element = array[read];
+				if (!filter.test(element)) {
+					array[write++] = element;
+				}
+			}
+		} finally {
+			// keep the list consistent if the predicate throws
+			System.arraycopy(array, read, array, write, size - read);
+			int newSize = write + size - read;
+			Arrays.fill(array, newSize, size, null);
+			size = newSize;
+		}
+		shrinkIfSparse();
+		return write != read;
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		for (int i = 0; i < size; i++) {
+			array[i] = operator.apply(array[i]);
+		}
+	}
+
+	/**
+	 * Sorts this list in place using the specified comparator. The sort is
+	 * stable and takes advantage of runs that are already sorted.
+	 * 
+	 * @param comparator the comparator, or {@code null} to use the natural
+	 *                   ordering of the elements
+	 */
+	public void sort(Comparator<? super E> comparator) {
+		Sorting.sort(array, 0, size, orNatural(comparator));
+	}
+
+	/**
+	 * Sorts this list in place using the specified comparator, splitting the
+	 * work across the fork-join common pool. The sort is stable.
+	 * 
+	 * @param comparator the comparator, or {@code null} to use the natural
+	 *                   ordering of the elements
+	 */
+	public void parallelSort(Comparator<? super E> comparator) {
+		Sorting.parallelSort(array, 0, size, orNatural(comparator));
+	}
+
+	@Override
+	public int binarySearch(E key, Comparator<? super E> comparator) {
+		return Sorting.binarySearch(array, 0, size, key, orNatural(comparator));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> Comparator<? super E> orNatural(Comparator<? super E> comparator) {
+		return comparator != null ? comparator : (Comparator<? super E>) Comparator.naturalOrder();
+	}
+
 	@Override
 	public void clear() {
 		Arrays.fill(array, null);
 		size = 0;
+		shrinkIfSparse();
 	}
 
 	@Override
@@ -118,6 +261,15 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		return size;
 	}
 
+	/**
+	 * Returns a {@link Spliterator} over the elements of this list that splits
+	 * the backing array by index into halves of known size.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(array, 0, size, Spliterator.ORDERED);
+	}
+
 	/**
 	 * Ensures that the list has at least the given capacity.
 	 * 
@@ -129,12 +281,43 @@ public final class ArrayList<E> extends AbstractList<E> implements List<E>, Dyna
 		if (array == null) {
 			array = (E[]) new Object[Math.max(minCapacity, 1)];
 		} else if (minCapacity > array.length) {
-			// * 1.5
-			int newCapactiy = Math.max(minCapacity, array.length + (array.length >> 1));
-			E[] newArray = (E[]) new Object[newCapactiy];
-			System.arraycopy(array, 0, newArray, 0, size);
-			array = newArray;
+			resize(Math.max(minCapacity, growthPolicy.grow(array.length, minCapacity)));
+		}
+	}
+
+	@Override
+	public void trimToSize() {
+		int newCapacity = Math.max(size, 1);
+		if (newCapacity < array.length) {
+			resize(newCapacity);
+		}
+	}
+
+	@Override
+	public GrowthPolicy getGrowthPolicy() {
+		return growthPolicy;
+	}
+
+	@Override
+	public void setGrowthPolicy(GrowthPolicy policy) {
+		growthPolicy = Objects.requireNonNull(policy);
+	}
+
+	private void shrinkIfSparse() {
+		int newCapacity = Math.max(growthPolicy.shrink(array.length, size), Math.max(size, 1));
+		if (newCapacity < array.length) {
+			resize(newCapacity);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void resize(int newCapacity) {
+		E[] newArray = (E[]) new Object[newCapacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		if (Instrumentation.ENABLED) {
+			probe.resized(array.length, newCapacity, size);
 		}
+		array = newArray;
 	}
 
 	/**
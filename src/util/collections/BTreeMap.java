@@ -0,0 +1,814 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An implementation of the {@link SortedMap} interface backed by a B+ tree.
+ * <p>
+ * Every node holds up to 64 keys in a plain array, so a lookup touches only a
+ * handful of nodes and binary searches within each one, which causes far
+ * fewer cache misses than a binary search tree. All entries are stored in the
+ * leaves, which are linked in key order, so ordered iteration and range
+ * scans walk the leaves sequentially. {@link #get}, {@link #put},
+ * {@link #remove}, {@link #floor} and {@link #ceiling} take logarithmic time.
+ * </p>
+ * <p>
+ * {@link #forEach(BiConsumer)} visits the entries without allocating; the
+ * iterator creates an {@link Entry} for each entry.
+ * </p>
+ * <p>
+ * This map does not permit {@code null} keys.
+ * </p>
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public final class BTreeMap<K, V> extends AbstractMap<K, V> implements SortedMap<K, V> {
+    private static final int MAX_KEYS = 64;
+    private static final int MIN_KEYS = MAX_KEYS / 2;
+
+    private static final int FLOOR = 0;
+    private static final int LOWER = 1;
+    private static final int CEILING = 2;
+    private static final int HIGHER = 3;
+
+    private static class Node {
+        // one spare slot so that a node can overflow before it is split
+        final Object[] keys = new Object[MAX_KEYS + 1];
+        int count;
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values = new Object[MAX_KEYS + 1];
+        Leaf next, previous;
+    }
+
+    private static final class Inner extends Node {
+        /**
+         * The children; all keys in {@code children[i + 1]} are greater than
+         * or equal to {@code keys[i]}, and all keys in {@code children[i]} are
+         * less than it.
+         */
+        final Node[] children = new Node[MAX_KEYS + 2];
+    }
+
+    /**
+     * A position in a leaf, as found by a seek. Seeks return a new cursor
+     * rather than storing the index in the map, so concurrent reads do not
+     * interfere.
+     */
+    private static final class Cursor {
+        final Leaf leaf;
+        final int index;
+
+        Cursor(Leaf leaf, int index) {
+            this.leaf = leaf;
+            this.index = index;
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private Node root = new Leaf();
+    private int size;
+    // the path of the last descent, reused to avoid allocating
+    private Inner[] path = new Inner[8];
+    private int[] pathIndex = new int[8];
+    private int depth;
+
+    /**
+     * Create an empty {@link BTreeMap} ordered by the given comparator.
+     *
+     * @param comparator the comparator ordering the keys
+     */
+    public BTreeMap(Comparator<? super K> comparator) {
+        this.comparator = Objects.requireNonNull(comparator);
+    }
+
+    /**
+     * Create an empty {@link BTreeMap} ordered by the natural ordering of its
+     * keys.
+     */
+    @SuppressWarnings("unchecked")
+    public BTreeMap() {
+        this((Comparator<? super K>) Comparator.naturalOrder());
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public V get(K key) throws NoSuchElementException {
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        if (index < 0) {
+            throw new NoSuchElementException();
+        }
+        return value(leaf, index);
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        return index < 0 ? defaultValue : value(leaf, index);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return false;
+        }
+        Leaf leaf = leafFor(key);
+        return search(leaf, key) >= 0;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Leaf leaf = descend(key);
+        int index = search(leaf, key);
+        if (index >= 0) {
+            V old = value(leaf, index);
+            leaf.values[index] = value;
+            return old;
+        }
+        index = -index - 1;
+        int move = leaf.count - index;
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, move);
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, move);
+        leaf.keys[index] = key;
+        leaf.values[index] = value;
+        leaf.count++;
+        size++;
+        if (leaf.count > MAX_KEYS) {
+            splitUpwards(leaf);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        Leaf leaf = descend(key);
+        int index = search(leaf, key);
+        if (index < 0) {
+            return false;
+        }
+        int move = leaf.count - index - 1;
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, move);
+        System.arraycopy(leaf.values, index + 1, leaf.values, index, move);
+        leaf.count--;
+        leaf.keys[leaf.count] = null;
+        leaf.values[leaf.count] = null;
+        size--;
+        rebalanceUpwards(leaf);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Entry<K, V> first() throws NoSuchElementException {
+        return entryOrThrow(seek(null, CEILING, null, null));
+    }
+
+    @Override
+    public Entry<K, V> last() throws NoSuchElementException {
+        return entryOrThrow(seek(null, FLOOR, null, null));
+    }
+
+    @Override
+    public Entry<K, V> floor(K key) {
+        return entry(seek(Objects.requireNonNull(key), FLOOR, null, null));
+    }
+
+    @Override
+    public Entry<K, V> ceiling(K key) {
+        return entry(seek(Objects.requireNonNull(key), CEILING, null, null));
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        return new SubMap(fromKey, toKey);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(action, null, null);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return entryIterator(null, null);
+    }
+
+    /**
+     * A view of the keys from {@code from}, inclusive, to {@code to},
+     * exclusive.
+     */
+    private final class SubMap extends AbstractMap<K, V> implements SortedMap<K, V> {
+        private final K from, to;
+
+        SubMap(K from, K to) {
+            if (compare(from, to) > 0) {
+                throw new IllegalArgumentException();
+            }
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public V get(K key) throws NoSuchElementException {
+            if (!inRange(key, from, to)) {
+                throw new NoSuchElementException();
+            }
+            return BTreeMap.this.get(key);
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return key != null && inRange(key, from, to) && BTreeMap.this.containsKey(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!inRange(Objects.requireNonNull(key), from, to)) {
+                throw new IllegalArgumentException();
+            }
+            return BTreeMap.this.put(key, value);
+        }
+
+        @Override
+        public boolean remove(K key) {
+            return key != null && inRange(key, from, to) && BTreeMap.this.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            removeRange(from, to);
+        }
+
+        @Override
+        public int size() {
+            return count(from, to);
+        }
+
+        @Override
+        public Entry<K, V> first() throws NoSuchElementException {
+            return entryOrThrow(seek(null, CEILING, from, to));
+        }
+
+        @Override
+        public Entry<K, V> last() throws NoSuchElementException {
+            return entryOrThrow(seek(null, FLOOR, from, to));
+        }
+
+        @Override
+        public Entry<K, V> floor(K key) {
+            return entry(seek(Objects.requireNonNull(key), FLOOR, from, to));
+        }
+
+        @Override
+        public Entry<K, V> ceiling(K key) {
+            return entry(seek(Objects.requireNonNull(key), CEILING, from, to));
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+            // the upper bound is exclusive, so [to, to) is a valid empty range
+            if (compare(fromKey, from) < 0 || compare(toKey, to) > 0) {
+                throw new IllegalArgumentException();
+            }
+            return new SubMap(fromKey, toKey);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            BTreeMap.this.forEach(action, from, to);
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return entryIterator(from, to);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries with keys from {@code from},
+     * inclusive, to {@code to}, exclusive; a {@code null} bound is unbounded.
+     */
+    Iterator<Entry<K, V>> entryIterator(K from, K to) {
+        class EntryIterator extends LeafWalker implements Iterator<Entry<K, V>> {
+            EntryIterator() {
+                super(from, to);
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<K, V> entry = new Entry<>(key(leaf, index), value(leaf, index));
+                advance();
+                return entry;
+            }
+        }
+
+        return new EntryIterator();
+    }
+
+    /**
+     * Returns an iterator over the keys from {@code from}, inclusive, to
+     * {@code to}, exclusive; a {@code null} bound is unbounded.
+     */
+    Iterator<K> keyIterator(K from, K to) {
+        class KeyIterator extends LeafWalker implements Iterator<K> {
+            KeyIterator() {
+                super(from, to);
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                K key = key(leaf, index);
+                advance();
+                return key;
+            }
+        }
+
+        return new KeyIterator();
+    }
+
+    /**
+     * Walks the leaves from the first key not less than {@code from} until
+     * the first key not less than {@code to}.
+     */
+    private abstract class LeafWalker {
+        Leaf leaf;
+        int index;
+        private final K to;
+
+        LeafWalker(K from, K to) {
+            this.to = to;
+            Cursor cursor = seek(null, CEILING, from, to);
+            if (cursor != null) {
+                leaf = cursor.leaf;
+                index = cursor.index;
+            }
+        }
+
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        void advance() {
+            if (++index == leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if (leaf != null && to != null && compare(key(leaf, index), to) >= 0) {
+                leaf = null;
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each entry with a key from {@code from},
+     * inclusive, to {@code to}, exclusive.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action, K from, K to) {
+        Cursor cursor = seek(null, CEILING, from, to);
+        if (cursor == null) {
+            return;
+        }
+        Leaf leaf = cursor.leaf;
+        int index = cursor.index;
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            for (; index < leaf.count; index++) {
+                K key = key(leaf, index);
+                if (to != null && compare(key, to) >= 0) {
+                    return;
+                }
+                action.accept(key, value(leaf, index));
+            }
+        }
+    }
+
+    /**
+     * Counts the keys from {@code from}, inclusive, to {@code to}, exclusive.
+     */
+    int count(K from, K to) {
+        if (from == null && to == null) {
+            return size;
+        }
+        Cursor cursor = seek(null, CEILING, from, to);
+        if (cursor == null) {
+            return 0;
+        }
+        Leaf leaf = cursor.leaf;
+        int index = cursor.index;
+        int count = 0;
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            if (to != null && compare(key(leaf, leaf.count - 1), to) >= 0) {
+                int end = search(leaf, to);
+                return count + (end < 0 ? -end - 1 : end) - index;
+            }
+            count += leaf.count - index;
+        }
+        return count;
+    }
+
+    /**
+     * Removes the keys from {@code from}, inclusive, to {@code to}, exclusive.
+     */
+    void removeRange(K from, K to) {
+        if (from == null && to == null) {
+            clear();
+            return;
+        }
+        ArrayList<K> keys = new ArrayList<>();
+        for (Iterator<K> iterator = keyIterator(from, to); iterator.hasNext();) {
+            keys.addLast(iterator.next());
+        }
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
+    K firstKey(K from, K to) {
+        Cursor cursor = seek(null, CEILING, from, to);
+        return cursor == null ? null : key(cursor.leaf, cursor.index);
+    }
+
+    K lastKey(K from, K to) {
+        Cursor cursor = seek(null, FLOOR, from, to);
+        return cursor == null ? null : key(cursor.leaf, cursor.index);
+    }
+
+    K floorKey(K key, K from, K to) {
+        Cursor cursor = seek(key, FLOOR, from, to);
+        return cursor == null ? null : key(cursor.leaf, cursor.index);
+    }
+
+    K ceilingKey(K key, K from, K to) {
+        Cursor cursor = seek(key, CEILING, from, to);
+        return cursor == null ? null : key(cursor.leaf, cursor.index);
+    }
+
+    /**
+     * Finds the key matching the given mode relative to the given key within
+     * the bounds {@code from}, inclusive, and {@code to}, exclusive. A
+     * {@code null} key stands for the lowest or highest key of the range, and
+     * a {@code null} bound is unbounded. Returns the position of the key, or
+     * {@code null} if there is none.
+     */
+    private Cursor seek(K key, int mode, K from, K to) {
+        Cursor cursor;
+        if (mode == FLOOR || mode == LOWER) {
+            if (to != null && (key == null || compare(key, to) >= 0)) {
+                cursor = seek(to, LOWER);
+            } else if (key == null) {
+                Leaf leaf = lastLeaf();
+                cursor = leaf.count == 0 ? null : new Cursor(leaf, leaf.count - 1);
+            } else {
+                cursor = seek(key, mode);
+            }
+            if (cursor != null && from != null && compare(key(cursor.leaf, cursor.index), from) < 0) {
+                return null;
+            }
+        } else {
+            if (from != null && (key == null || compare(key, from) < 0)) {
+                cursor = seek(from, CEILING);
+            } else if (key == null) {
+                Leaf leaf = firstLeaf();
+                cursor = leaf.count == 0 ? null : new Cursor(leaf, 0);
+            } else {
+                cursor = seek(key, mode);
+            }
+            if (cursor != null && to != null && compare(key(cursor.leaf, cursor.index), to) >= 0) {
+                return null;
+            }
+        }
+        return cursor;
+    }
+
+    private Cursor seek(K key, int mode) {
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        if (index >= 0) {
+            if (mode == LOWER) {
+                index--;
+            } else if (mode == HIGHER) {
+                index++;
+            }
+        } else {
+            index = -index - 1;
+            if (mode == FLOOR || mode == LOWER) {
+                index--;
+            }
+        }
+        if (index < 0) {
+            leaf = leaf.previous;
+            if (leaf == null) {
+                return null;
+            }
+            index = leaf.count - 1;
+        } else if (index >= leaf.count) {
+            leaf = leaf.next;
+            if (leaf == null) {
+                return null;
+            }
+            index = 0;
+        }
+        return new Cursor(leaf, index);
+    }
+
+    private Leaf leafFor(K key) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Finds the leaf for the given key, recording the path from the root.
+     */
+    private Leaf descend(K key) {
+        Node node = root;
+        depth = 0;
+        while (node instanceof Inner inner) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                pathIndex = Arrays.copyOf(pathIndex, depth * 2);
+            }
+            int child = childIndex(inner, key);
+            path[depth] = inner;
+            pathIndex[depth++] = child;
+            node = inner.children[child];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf lastLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.count];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Splits the overflowing leaf found by the last descent and any ancestors
+     * that overflow in turn.
+     */
+    private void splitUpwards(Leaf leaf) {
+        Leaf right = new Leaf();
+        int half = leaf.count / 2;
+        int moved = leaf.count - half;
+        System.arraycopy(leaf.keys, half, right.keys, 0, moved);
+        System.arraycopy(leaf.values, half, right.values, 0, moved);
+        Arrays.fill(leaf.keys, half, leaf.count, null);
+        Arrays.fill(leaf.values, half, leaf.count, null);
+        right.count = moved;
+        leaf.count = half;
+        right.next = leaf.next;
+        if (right.next != null) {
+            right.next.previous = right;
+        }
+        right.previous = leaf;
+        leaf.next = right;
+
+        Object separator = right.keys[0];
+        Node newChild = right;
+        for (int level = depth - 1; level >= 0; level--) {
+            Inner parent = path[level];
+            int child = pathIndex[level];
+            System.arraycopy(parent.keys, child, parent.keys, child + 1, parent.count - child);
+            System.arraycopy(parent.children, child + 1, parent.children, child + 2, parent.count - child);
+            parent.keys[child] = separator;
+            parent.children[child + 1] = newChild;
+            parent.count++;
+            if (parent.count <= MAX_KEYS) {
+                return;
+            }
+            // split the inner node, moving its middle key up
+            Inner sibling = new Inner();
+            int middle = parent.count / 2;
+            separator = parent.keys[middle];
+            int keysMoved = parent.count - middle - 1;
+            System.arraycopy(parent.keys, middle + 1, sibling.keys, 0, keysMoved);
+            System.arraycopy(parent.children, middle + 1, sibling.children, 0, keysMoved + 1);
+            Arrays.fill(parent.keys, middle, parent.count, null);
+            Arrays.fill(parent.children, middle + 1, parent.count + 1, null);
+            sibling.count = keysMoved;
+            parent.count = middle;
+            newChild = sibling;
+        }
+        Inner newRoot = new Inner();
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = root;
+        newRoot.children[1] = newChild;
+        newRoot.count = 1;
+        root = newRoot;
+    }
+
+    /**
+     * Refills or merges the underflowing nodes on the path of the last
+     * descent, starting at the given leaf.
+     */
+    private void rebalanceUpwards(Node node) {
+        for (int level = depth - 1; level >= 0 && node.count < MIN_KEYS; level--) {
+            Inner parent = path[level];
+            int child = pathIndex[level];
+            Node left = child > 0 ? parent.children[child - 1] : null;
+            Node right = child < parent.count ? parent.children[child + 1] : null;
+            if (left != null && left.count > MIN_KEYS) {
+                borrowFromLeft(parent, child);
+            } else if (right != null && right.count > MIN_KEYS) {
+                borrowFromRight(parent, child);
+            } else if (left != null) {
+                merge(parent, child - 1);
+            } else if (right != null) {
+                merge(parent, child);
+            }
+            node = parent;
+        }
+        if (root instanceof Inner inner && inner.count == 0) {
+            root = inner.children[0];
+        }
+    }
+
+    private static void borrowFromLeft(Inner parent, int child) {
+        Node node = parent.children[child];
+        Node left = parent.children[child - 1];
+        System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+        if (node instanceof Leaf leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+            leaf.keys[0] = left.keys[left.count - 1];
+            leaf.values[0] = leftLeaf.values[left.count - 1];
+            leftLeaf.values[left.count - 1] = null;
+            parent.keys[child - 1] = leaf.keys[0];
+        } else {
+            Inner inner = (Inner) node;
+            Inner leftInner = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+            inner.keys[0] = parent.keys[child - 1];
+            inner.children[0] = leftInner.children[left.count];
+            leftInner.children[left.count] = null;
+            parent.keys[child - 1] = left.keys[left.count - 1];
+        }
+        left.keys[left.count - 1] = null;
+        left.count--;
+        node.count++;
+    }
+
+    private static void borrowFromRight(Inner parent, int child) {
+        Node node = parent.children[child];
+        Node right = parent.children[child + 1];
+        if (node instanceof Leaf leaf) {
+            Leaf rightLeaf = (Leaf) right;
+            leaf.keys[leaf.count] = right.keys[0];
+            leaf.values[leaf.count] = rightLeaf.values[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(rightLeaf.values, 1, rightLeaf.values, 0, right.count - 1);
+            rightLeaf.values[right.count - 1] = null;
+            parent.keys[child] = right.keys[0];
+        } else {
+            Inner inner = (Inner) node;
+            Inner rightInner = (Inner) right;
+            inner.keys[inner.count] = parent.keys[child];
+            inner.children[inner.count + 1] = rightInner.children[0];
+            parent.keys[child] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(rightInner.children, 1, rightInner.children, 0, right.count);
+            rightInner.children[right.count] = null;
+        }
+        right.keys[right.count - 1] = null;
+        right.count--;
+        node.count++;
+    }
+
+    /**
+     * Merges {@code children[child + 1]} of the parent into
+     * {@code children[child]}.
+     */
+    private static void merge(Inner parent, int child) {
+        Node left = parent.children[child];
+        Node right = parent.children[child + 1];
+        if (left instanceof Leaf leftLeaf) {
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, left.count, right.count);
+            left.count += right.count;
+            leftLeaf.next = rightLeaf.next;
+            if (leftLeaf.next != null) {
+                leftLeaf.next.previous = leftLeaf;
+            }
+        } else {
+            Inner leftInner = (Inner) left;
+            left.keys[left.count] = parent.keys[child];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(((Inner) right).children, 0, leftInner.children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        System.arraycopy(parent.keys, child + 1, parent.keys, child, parent.count - child - 1);
+        System.arraycopy(parent.children, child + 2, parent.children, child + 1, parent.count - child - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    private int childIndex(Inner inner, K key) {
+        int index = search(inner, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Binary searches the keys of the node, returning the index of the key or
+     * {@code -(insertion point) - 1}.
+     */
+    @SuppressWarnings("unchecked")
+    private int search(Node node, K key) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparator.compare((K) node.keys[middle], key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    boolean inRange(K key, K from, K to) {
+        return (from == null || compare(key, from) >= 0) && (to == null || compare(key, to) < 0);
+    }
+
+    int compare(K a, K b) {
+        return comparator.compare(a, b);
+    }
+
+    private Entry<K, V> entry(Cursor cursor) {
+        return cursor == null ? null : new Entry<>(key(cursor.leaf, cursor.index), value(cursor.leaf, cursor.index));
+    }
+
+    private Entry<K, V> entryOrThrow(Cursor cursor) {
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        return entry(cursor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(Leaf leaf, int index) {
+        return (K) leaf.keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Leaf leaf, int index) {
+        return (V) leaf.values[index];
+    }
+}
@@ -0,0 +1,162 @@
+package util.collections;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An implementation of the {@link SortedSet} interface backed by a
+ * {@link BTreeMap}.
+ * <p>
+ * {@link #contains}, {@link #add}, {@link #remove}, {@link #floor} and
+ * {@link #ceiling} take logarithmic time, and iteration walks the linked
+ * leaves of the tree in order without allocating per element.
+ * </p>
+ * <p>
+ * This set does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in this set
+ */
+public final class BTreeSet<E> extends AbstractSet<E> implements SortedSet<E> {
+    private final BTreeMap<E, Boolean> map;
+    // the bounds of a view, or null if unbounded
+    private final E from, to;
+
+    /**
+     * Create a {@link BTreeSet} with the specified elements, ordered by their
+     * natural ordering.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link BTreeSet}
+     */
+    @SafeVarargs
+    public static <E extends Comparable<? super E>> BTreeSet<E> of(E... elements) {
+        BTreeSet<E> set = new BTreeSet<>();
+        for (E element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    /**
+     * Create an empty {@link BTreeSet} ordered by the given comparator.
+     *
+     * @param comparator the comparator ordering the elements
+     */
+    public BTreeSet(Comparator<? super E> comparator) {
+        this(new BTreeMap<>(comparator), null, null);
+    }
+
+    /**
+     * Create an empty {@link BTreeSet} ordered by the natural ordering of its
+     * elements.
+     */
+    public BTreeSet() {
+        this(new BTreeMap<>(), null, null);
+    }
+
+    private BTreeSet(BTreeMap<E, Boolean> map, E from, E to) {
+        this.map = map;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return map.comparator();
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return element != null && map.inRange(element, from, to) && map.containsKey(element);
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (!map.inRange(Objects.requireNonNull(element), from, to)) {
+            throw new IllegalArgumentException();
+        }
+        return map.put(element, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        return element != null && map.inRange(element, from, to) && map.remove(element);
+    }
+
+    @Override
+    public void clear() {
+        map.removeRange(from, to);
+    }
+
+    @Override
+    public int size() {
+        return map.count(from, to);
+    }
+
+    @Override
+    public E first() throws NoSuchElementException {
+        E first = map.firstKey(from, to);
+        if (first == null) {
+            throw new NoSuchElementException();
+        }
+        return first;
+    }
+
+    @Override
+    public E last() throws NoSuchElementException {
+        E last = map.lastKey(from, to);
+        if (last == null) {
+            throw new NoSuchElementException();
+        }
+        return last;
+    }
+
+    @Override
+    public E floor(E element) {
+        return map.floorKey(Objects.requireNonNull(element), from, to);
+    }
+
+    @Override
+    public E ceiling(E element) {
+        return map.ceilingKey(Objects.requireNonNull(element), from, to);
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) throws IllegalArgumentException {
+        // the upper bound is exclusive, so [to, to) is a valid empty range
+        if (map.compare(fromElement, toElement) > 0 || (from != null && map.compare(fromElement, from) < 0)
+                || (to != null && map.compare(toElement, to) > 0)) {
+            throw new IllegalArgumentException();
+        }
+        return new BTreeSet<>(map, fromElement, toElement);
+    }
+
+    @Override
+    public boolean isSupersetOf(Iterable<? extends E> iterable) {
+        return containsAll(iterable);
+    }
+
+    @Override
+    public boolean isSubsetOf(Iterable<E> iterable) {
+        if (iterable == this) {
+            return true;
+        }
+        // count the distinct elements of this set that occur in the iterable
+        BTreeSet<E> found = new BTreeSet<>(comparator());
+        for (E element : iterable) {
+            if (contains(element)) {
+                found.add(element);
+            }
+        }
+        return found.size() == size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keyIterator(from, to);
+    }
+}
@@ -0,0 +1,587 @@
+package util.collections;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact binary encoding of collections.
+ * <p>
+ * Elements are encoded by a {@link Codec}. A list is written as its size,
+ * the width of its elements and, if the width varies, a table of the end
+ * offsets of all elements, followed by the encoded elements. The table lets
+ * {@link #listView} decode any element directly, so a list written to a file
+ * can be read back from a {@link java.nio.MappedByteBuffer} without decoding
+ * or copying the whole list. Maps are written as their size followed by
+ * their keys and values. Primitive lists are written as their size followed
+ * by the zigzag varint encoded differences of consecutive values, which
+ * takes one or two bytes per value for sorted or clustered data.
+ * </p>
+ * <p>
+ * All values are written in big-endian byte order, whatever the order of
+ * the buffers passed in. Writing to a {@link ByteBuffer} and reading from one
+ * starts at its position and advances it past the encoded collection; if the
+ * collection does not fit, a {@link BufferOverflowException} or
+ * {@link BufferUnderflowException} is thrown.
+ * </p>
+ */
+public final class BinaryCodec {
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Writes a collection as a list to the given buffer.
+     *
+     * @param <E>        the type of elements
+     * @param collection the collection to write
+     * @param codec      the codec used to encode elements
+     * @param buffer     the buffer to write to
+     */
+    public static <E> void writeList(ReadOnlyCollection<? extends E> collection, Codec<E> codec,
+            ByteBuffer buffer) {
+        try {
+            Sink sink = new Sink(buffer);
+            writeList(collection, codec, sink);
+            sink.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a collection as a list to the given channel.
+     *
+     * @param <E>        the type of elements
+     * @param collection the collection to write
+     * @param codec      the codec used to encode elements
+     * @param channel    the channel to write to
+     * @throws IOException if the channel fails to write
+     */
+    public static <E> void writeList(ReadOnlyCollection<? extends E> collection, Codec<E> codec,
+            WritableByteChannel channel) throws IOException {
+        Sink sink = new Sink(channel);
+        writeList(collection, codec, sink);
+        sink.finish();
+    }
+
+    /**
+     * Writes a map to the given buffer.
+     *
+     * @param <K>        the type of keys
+     * @param <V>        the type of values
+     * @param map        the map to write
+     * @param keyCodec   the codec used to encode keys
+     * @param valueCodec the codec used to encode values
+     * @param buffer     the buffer to write to
+     */
+    public static <K, V> void writeMap(ReadOnlyMap<? extends K, ? extends V> map, Codec<K> keyCodec,
+            Codec<V> valueCodec, ByteBuffer buffer) {
+        try {
+            Sink sink = new Sink(buffer);
+            writeMap(map, keyCodec, valueCodec, sink);
+            sink.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a map to the given channel.
+     *
+     * @param <K>        the type of keys
+     * @param <V>        the type of values
+     * @param map        the map to write
+     * @param keyCodec   the codec used to encode keys
+     * @param valueCodec the codec used to encode values
+     * @param channel    the channel to write to
+     * @throws IOException if the channel fails to write
+     */
+    public static <K, V> void writeMap(ReadOnlyMap<? extends K, ? extends V> map, Codec<K> keyCodec,
+            Codec<V> valueCodec, WritableByteChannel channel) throws IOException {
+        Sink sink = new Sink(channel);
+        writeMap(map, keyCodec, valueCodec, sink);
+        sink.finish();
+    }
+
+    /**
+     * Writes an {@link IntArrayList} to the given buffer.
+     *
+     * @param list   the list to write
+     * @param buffer the buffer to write to
+     */
+    public static void writeInts(IntArrayList list, ByteBuffer buffer) {
+        try {
+            Sink sink = new Sink(buffer);
+            writeInts(list, sink);
+            sink.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes an {@link IntArrayList} to the given channel.
+     *
+     * @param list    the list to write
+     * @param channel the channel to write to
+     * @throws IOException if the channel fails to write
+     */
+    public static void writeInts(IntArrayList list, WritableByteChannel channel) throws IOException {
+        Sink sink = new Sink(channel);
+        writeInts(list, sink);
+        sink.finish();
+    }
+
+    /**
+     * Writes a {@link LongArrayList} to the given buffer.
+     *
+     * @param list   the list to write
+     * @param buffer the buffer to write to
+     */
+    public static void writeLongs(LongArrayList list, ByteBuffer buffer) {
+        try {
+            Sink sink = new Sink(buffer);
+            writeLongs(list, sink);
+            sink.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a {@link LongArrayList} to the given channel.
+     *
+     * @param list    the list to write
+     * @param channel the channel to write to
+     * @throws IOException if the channel fails to write
+     */
+    public static void writeLongs(LongArrayList list, WritableByteChannel channel) throws IOException {
+        Sink sink = new Sink(channel);
+        writeLongs(list, sink);
+        sink.finish();
+    }
+
+    /**
+     * Writes a {@link DoubleArrayList} to the given buffer.
+     *
+     * @param list   the list to write
+     * @param buffer the buffer to write to
+     */
+    public static void writeDoubles(DoubleArrayList list, ByteBuffer buffer) {
+        try {
+            Sink sink = new Sink(buffer);
+            writeDoubles(list, sink);
+            sink.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a {@link DoubleArrayList} to the given channel.
+     *
+     * @param list    the list to write
+     * @param channel the channel to write to
+     * @throws IOException if the channel fails to write
+     */
+    public static void writeDoubles(DoubleArrayList list, WritableByteChannel channel) throws IOException {
+        Sink sink = new Sink(channel);
+        writeDoubles(list, sink);
+        sink.finish();
+    }
+
+    /**
+     * Returns a read-only view of the list encoded at the position of the
+     * given buffer. Elements are decoded from the buffer on every access and
+     * never copied to the heap as a whole. The position of the buffer is
+     * advanced past the list.
+     *
+     * @param <E>    the type of elements
+     * @param buffer the buffer to read from, typically a
+     *               {@link java.nio.MappedByteBuffer}
+     * @param codec  the codec used to decode elements
+     * @return a view of the encoded list
+     */
+    public static <E> ReadOnlyList<E> listView(ByteBuffer buffer, Codec<E> codec) {
+        EncodedList<E> list = new EncodedList<>(buffer, codec);
+        buffer.position(list.end);
+        return list;
+    }
+
+    /**
+     * Reads the list encoded at the position of the given buffer into an
+     * {@link ArrayList}.
+     *
+     * @param <E>    the type of elements
+     * @param buffer the buffer to read from
+     * @param codec  the codec used to decode elements
+     * @return a new {@link ArrayList}
+     */
+    public static <E> ArrayList<E> readList(ByteBuffer buffer, Codec<E> codec) {
+        ReadOnlyList<E> view = listView(buffer, codec);
+        ArrayList<E> list = new ArrayList<>(Math.max(view.size(), 1));
+        for (E element : view) {
+            list.addLast(element);
+        }
+        return list;
+    }
+
+    /**
+     * Reads the list encoded at the position of the given buffer into a
+     * {@link Tuple}.
+     *
+     * @param <E>    the type of elements
+     * @param buffer the buffer to read from
+     * @param codec  the codec used to decode elements
+     * @return a new {@link Tuple}
+     */
+    public static <E> Tuple<E> readTuple(ByteBuffer buffer, Codec<E> codec) {
+        return Tuple.<E>builder().addAll(listView(buffer, codec)).build();
+    }
+
+    /**
+     * Reads the map encoded at the position of the given buffer into a
+     * {@link HashMap}.
+     *
+     * @param <K>        the type of keys
+     * @param <V>        the type of values
+     * @param buffer     the buffer to read from
+     * @param keyCodec   the codec used to decode keys
+     * @param valueCodec the codec used to decode values
+     * @return a new {@link HashMap}
+     */
+    public static <K, V> HashMap<K, V> readMap(ByteBuffer buffer, Codec<K> keyCodec, Codec<V> valueCodec) {
+        ByteBuffer in = bigEndian(buffer);
+        int offset = in.position();
+        int count = readCount(in, offset);
+        offset += Integer.BYTES;
+        HashMap<K, V> map = new HashMap<>(Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            K key = keyCodec.read(in, offset);
+            offset += keyCodec.sizeAt(in, offset);
+            V value = valueCodec.read(in, offset);
+            offset += valueCodec.sizeAt(in, offset);
+            map.put(key, value);
+        }
+        buffer.position(offset);
+        return map;
+    }
+
+    /**
+     * Reads the {@code int} list encoded at the position of the given buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return a new {@link IntArrayList}
+     */
+    public static IntArrayList readInts(ByteBuffer buffer) {
+        ByteBuffer in = bigEndian(buffer);
+        int offset = in.position();
+        int count = readCount(in, offset);
+        offset += Integer.BYTES;
+        IntArrayList list = new IntArrayList(Math.max(count, 1));
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            value += (int) Varint.unzigzag(Varint.read(in, offset));
+            offset += Varint.sizeAt(in, offset);
+            list.addInt(value);
+        }
+        buffer.position(offset);
+        return list;
+    }
+
+    /**
+     * Reads the {@code long} list encoded at the position of the given
+     * buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return a new {@link LongArrayList}
+     */
+    public static LongArrayList readLongs(ByteBuffer buffer) {
+        ByteBuffer in = bigEndian(buffer);
+        int offset = in.position();
+        int count = readCount(in, offset);
+        offset += Integer.BYTES;
+        LongArrayList list = new LongArrayList(Math.max(count, 1));
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value += Varint.unzigzag(Varint.read(in, offset));
+            offset += Varint.sizeAt(in, offset);
+            list.addLong(value);
+        }
+        buffer.position(offset);
+        return list;
+    }
+
+    /**
+     * Reads the {@code double} list encoded at the position of the given
+     * buffer.
+     *
+     * @param buffer the buffer to read from
+     * @return a new {@link DoubleArrayList}
+     */
+    public static DoubleArrayList readDoubles(ByteBuffer buffer) {
+        ByteBuffer in = bigEndian(buffer);
+        int offset = in.position();
+        int count = readCount(in, offset);
+        offset += Integer.BYTES;
+        checkRemaining(in, offset, (long) count * Double.BYTES);
+        DoubleArrayList list = new DoubleArrayList(Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            list.addDouble(in.getDouble(offset));
+            offset += Double.BYTES;
+        }
+        buffer.position(offset);
+        return list;
+    }
+
+    private static <E> void writeList(ReadOnlyCollection<? extends E> collection, Codec<E> codec, Sink sink)
+            throws IOException {
+        int count = collection.size();
+        int width = codec.width();
+        sink.putInt(count);
+        sink.putInt(width);
+        if (width < 0) {
+            // the table of end offsets is written before the elements, so
+            // the elements are measured in a first pass
+            int end = 0;
+            for (E element : collection) {
+                end = Math.addExact(end, codec.size(element));
+                sink.putInt(end);
+            }
+        }
+        for (E element : collection) {
+            sink.put(codec, element);
+        }
+    }
+
+    private static <K, V> void writeMap(ReadOnlyMap<? extends K, ? extends V> map, Codec<K> keyCodec,
+            Codec<V> valueCodec, Sink sink) throws IOException {
+        sink.putInt(map.size());
+        for (Entry<? extends K, ? extends V> entry : map) {
+            sink.put(keyCodec, entry.getKey());
+            sink.put(valueCodec, entry.getValue());
+        }
+    }
+
+    private static void writeInts(IntArrayList list, Sink sink) throws IOException {
+        int count = list.size();
+        sink.putInt(count);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int value = list.getInt(i);
+            // the difference may overflow; it wraps back when added on read
+            sink.putVarint(Varint.zigzag(value - previous));
+            previous = value;
+        }
+    }
+
+    private static void writeLongs(LongArrayList list, Sink sink) throws IOException {
+        int count = list.size();
+        sink.putInt(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long value = list.getLong(i);
+            sink.putVarint(Varint.zigzag(value - previous));
+            previous = value;
+        }
+    }
+
+    private static void writeDoubles(DoubleArrayList list, Sink sink) throws IOException {
+        int count = list.size();
+        sink.putInt(count);
+        for (int i = 0; i < count; i++) {
+            sink.putDouble(list.getDouble(i));
+        }
+    }
+
+    private static ByteBuffer bigEndian(ByteBuffer buffer) {
+        return buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private static int readCount(ByteBuffer buffer, int offset) {
+        checkRemaining(buffer, offset, Integer.BYTES);
+        int count = buffer.getInt(offset);
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        return count;
+    }
+
+    private static void checkRemaining(ByteBuffer buffer, int offset, long bytes) {
+        if (offset + bytes > buffer.limit()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    /**
+     * A read-only list decoding its elements from an encoded list.
+     */
+    private static final class EncodedList<E> extends AbstractList<E> {
+        private final ByteBuffer buffer;
+        private final Codec<E> codec;
+        private final int size;
+        private final int width;
+        /**
+         * The offset of the table of end offsets, if the width varies.
+         */
+        private final int table;
+        private final int data;
+        private final int end;
+
+        EncodedList(ByteBuffer buffer, Codec<E> codec) {
+            this.buffer = bigEndian(buffer);
+            this.codec = codec;
+            int offset = this.buffer.position();
+            size = readCount(this.buffer, offset);
+            checkRemaining(this.buffer, offset, 2 * Integer.BYTES);
+            width = this.buffer.getInt(offset + Integer.BYTES);
+            if (width < -1 || width >= 0 && width != codec.width()) {
+                throw new IllegalArgumentException();
+            }
+            table = offset + 2 * Integer.BYTES;
+            if (width < 0) {
+                checkRemaining(this.buffer, table, (long) size * Integer.BYTES);
+                data = table + size * Integer.BYTES;
+                long length = size == 0 ? 0 : this.buffer.getInt(table + (size - 1) * Integer.BYTES);
+                checkRemaining(this.buffer, data, length);
+                end = data + (int) length;
+            } else {
+                data = table;
+                checkRemaining(this.buffer, data, (long) size * width);
+                end = data + size * width;
+            }
+        }
+
+        @Override
+        public E get(int index) throws IndexOutOfBoundsException {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException();
+            }
+            return codec.read(buffer, data + start(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            class EncodedIterator implements Iterator<E> {
+                private int index = 0;
+                private int offset = data;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    E element = codec.read(buffer, offset);
+                    offset = data + (width < 0 ? buffer.getInt(table + index * Integer.BYTES) : (index + 1) * width);
+                    index++;
+                    return element;
+                }
+            }
+
+            return new EncodedIterator();
+        }
+
+        private int start(int index) {
+            if (width >= 0) {
+                return index * width;
+            }
+            return index == 0 ? 0 : buffer.getInt(table + (index - 1) * Integer.BYTES);
+        }
+    }
+
+    /**
+     * The destination of an encoding, either a buffer or a channel that is
+     * written to through a staging buffer.
+     */
+    private static final class Sink {
+        private final ByteBuffer target;
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer;
+        private int position;
+
+        Sink(ByteBuffer target) {
+            this.target = target;
+            this.channel = null;
+            this.buffer = bigEndian(target);
+            this.position = target.position();
+        }
+
+        Sink(WritableByteChannel channel) {
+            this.target = null;
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            this.position = 0;
+        }
+
+        void putInt(int value) throws IOException {
+            require(Integer.BYTES);
+            buffer.putInt(position, value);
+            position += Integer.BYTES;
+        }
+
+        void putDouble(double value) throws IOException {
+            require(Double.BYTES);
+            buffer.putDouble(position, value);
+            position += Double.BYTES;
+        }
+
+        void putVarint(long value) throws IOException {
+            require(Varint.size(value));
+            position += Varint.write(buffer, position, value);
+        }
+
+        <E> void put(Codec<E> codec, E element) throws IOException {
+            int width = codec.width();
+            require(width >= 0 ? width : codec.size(element));
+            position += codec.write(buffer, position, element);
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.limit() - position >= bytes) {
+                return;
+            }
+            if (channel == null) {
+                throw new BufferOverflowException();
+            }
+            flush();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.limit(position);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            position = 0;
+        }
+
+        void finish() throws IOException {
+            if (channel == null) {
+                target.position(position);
+            } else {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package util.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A thread-safe, bounded cache.
+ * <p>
+ * Entries are indexed by a {@link HashMap} and linked into intrusive doubly
+ * linked recency lists, so lookups, insertions and evictions take constant
+ * time. The total weight of the entries, one per entry unless a weigher is
+ * given, is kept at or below the maximum weight by evicting entries according
+ * to the cache's {@link Policy}.
+ * </p>
+ * <p>
+ * {@link #getOr(Object, Supplier)} and {@link #computeIfAbsent} load and
+ * cache missing values. Concurrent calls for the same key share a single
+ * load, which runs outside of the cache's lock.
+ * </p>
+ * <p>
+ * This cache does not permit {@code null} keys or values.
+ * </p>
+ *
+ * @param <K> the type of keys in this cache
+ * @param <V> the type of values in this cache
+ */
+public final class Cache<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+
+    /**
+     * The eviction policy of a {@link Cache}.
+     */
+    public enum Policy {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Window TinyLFU: new entries enter a small LRU window, and an entry
+         * leaving the window is only admitted to the main segmented LRU region
+         * if it has been used more often, according to a compact frequency
+         * sketch, than the entry it would displace.
+         */
+        TINY_LFU
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final class Node<K, V> {
+        K key;
+        V value;
+        int weight;
+        int region;
+        Node<K, V> next, previous;
+    }
+
+    /**
+     * The result of a load in progress, remembering the loading thread so
+     * that a loader asking for its own key fails instead of waiting forever.
+     */
+    private static final class Load<V> extends CompletableFuture<V> {
+        final Thread loader = Thread.currentThread();
+    }
+
+    private final HashMap<K, Node<K, V>> index = new HashMap<>();
+    private final HashMap<K, Load<V>> loading = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] heads = (Node<K, V>[]) new Node<?, ?>[3];
+    private final long[] weights = new long[3];
+    private final Policy policy;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final FrequencySketch sketch;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create a least recently used {@link Cache} holding at most the specified
+     * number of entries.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public Cache(int maximumSize) {
+        this(maximumSize, (key, value) -> 1, Policy.LRU);
+    }
+
+    /**
+     * Create a {@link Cache} bounded by the total weight of its entries.
+     *
+     * @param maximumWeight the maximum total weight of the entries
+     * @param weigher       the function computing the weight of an entry
+     * @param policy        the eviction policy
+     */
+    public Cache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, Policy policy) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        this.policy = Objects.requireNonNull(policy);
+        if (policy == Policy.TINY_LFU) {
+            windowMaximum = Math.max(1, maximumWeight / 100);
+            long mainMaximum = maximumWeight - windowMaximum;
+            // 80% of the main region, divided first so that it cannot overflow
+            protectedMaximum = mainMaximum / 5 * 4 + mainMaximum % 5 * 4 / 5;
+            sketch = new FrequencySketch();
+        } else {
+            windowMaximum = maximumWeight;
+            protectedMaximum = 0;
+            sketch = null;
+        }
+        for (int region = 0; region < heads.length; region++) {
+            Node<K, V> head = new Node<>();
+            head.next = head;
+            head.previous = head;
+            heads[region] = head;
+        }
+    }
+
+    @Override
+    public synchronized V get(K key) throws NoSuchElementException {
+        Node<K, V> node = lookup(key);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.value;
+    }
+
+    @Override
+    public synchronized V getOrDefault(K key, V defaultValue) {
+        Node<K, V> node = lookup(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    /**
+     * Returns the value associated with the given key, loading it with the
+     * given supplier and caching it if this cache does not contain the key. If
+     * other threads are loading the same key, this waits for their result
+     * instead of loading the value again. A {@code null} result is returned
+     * but not cached. Waiting threads see the same exception as the loading
+     * thread if the load fails.
+     *
+     * @param key    the key
+     * @param loader the loader of the value
+     * @return the cached or loaded value
+     * @throws IllegalStateException if the loader asks for the same key
+     */
+    @Override
+    public V getOr(K key, Supplier<V> loader) {
+        return load(key, k -> loader.get());
+    }
+
+    /**
+     * Returns the value associated with the given key, loading it with the
+     * given function and caching it if this cache does not contain the key.
+     * Concurrent calls for the same key share a single load.
+     *
+     * @param key      the key
+     * @param function the loader of the value
+     * @return the cached or loaded value
+     * @throws IllegalStateException if the loader asks for the same key
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        return load(key, function);
+    }
+
+    @Override
+    public synchronized boolean containsKey(K key) {
+        return key != null && index.containsKey(key);
+    }
+
+    @Override
+    public synchronized boolean containsValue(V value) {
+        for (Entry<K, Node<K, V>> entry : index) {
+            if (entry.getValue().value.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        Objects.requireNonNull(value);
+        Node<K, V> node = key == null ? null : index.getOrDefault(key, null);
+        if (node != null) {
+            V old = node.value;
+            int weight = weigher.applyAsInt(key, value);
+            weights[node.region] += weight - node.weight;
+            node.value = value;
+            node.weight = weight;
+            onAccess(node);
+            evict();
+            return old;
+        }
+        insert(key, value);
+        return null;
+    }
+
+    @Override
+    public synchronized boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        Node<K, V> node = index.getOrDefault(key, null);
+        if (node == null) {
+            return false;
+        }
+        index.remove(key);
+        unlink(node);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        index.clear();
+        for (int region = 0; region < heads.length; region++) {
+            heads[region].next = heads[region];
+            heads[region].previous = heads[region];
+            weights[region] = 0;
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in this cache.
+     *
+     * @return the total weight of the entries
+     */
+    public synchronized long weight() {
+        return weights[WINDOW] + weights[PROBATION] + weights[PROTECTED];
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached value.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the maximum weight.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the entries of this cache. Does
+     * not affect recency or frequency.
+     */
+    @Override
+    public synchronized Iterator<Entry<K, V>> iterator() {
+        ArrayList<Entry<K, V>> snapshot = new ArrayList<>(Math.max(1, index.size()));
+        for (Entry<K, Node<K, V>> entry : index) {
+            snapshot.add(new Entry<>(entry.getKey(), entry.getValue().value));
+        }
+        return snapshot.iterator();
+    }
+
+    private V load(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(key);
+        Load<V> future;
+        boolean owner = false;
+        synchronized (this) {
+            Node<K, V> node = lookup(key);
+            if (node != null) {
+                return node.value;
+            }
+            future = loading.getOrDefault(key, null);
+            if (future == null) {
+                future = new Load<>();
+                loading.put(key, future);
+                owner = true;
+            } else if (future.loader == Thread.currentThread()) {
+                throw new IllegalStateException("recursive load");
+            }
+        }
+        if (!owner) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                // rethrow what the loader threw, as the loading thread does
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            loading.remove(key);
+            if (value != null && !index.containsKey(key)) {
+                insert(key, value);
+            }
+        }
+        future.complete(value);
+        return value;
+    }
+
+    /**
+     * Finds the node for the given key, recording a hit or a miss.
+     */
+    private Node<K, V> lookup(K key) {
+        Node<K, V> node = key == null ? null : index.getOrDefault(key, null);
+        if (node == null) {
+            missCount++;
+            if (sketch != null && key != null) {
+                sketch.increment(key.hashCode());
+            }
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node;
+    }
+
+    private void insert(K key, V value) {
+        Node<K, V> node = new Node<>();
+        node.key = key;
+        node.value = value;
+        node.weight = weigher.applyAsInt(key, value);
+        index.put(key, node);
+        if (sketch != null) {
+            sketch.ensureCapacity(index.size());
+            sketch.increment(key.hashCode());
+        }
+        link(node, WINDOW);
+        evict();
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.key.hashCode());
+        }
+        int region = node.region;
+        unlink(node);
+        if (region == PROBATION) {
+            link(node, PROTECTED);
+            // demote the least recently used protected entries
+            while (weights[PROTECTED] > protectedMaximum) {
+                Node<K, V> demoted = heads[PROTECTED].next;
+                unlink(demoted);
+                link(demoted, PROBATION);
+            }
+        } else {
+            link(node, region);
+        }
+    }
+
+    private void evict() {
+        if (policy == Policy.LRU) {
+            while (weights[WINDOW] > maximumWeight) {
+                evict(heads[WINDOW].next);
+            }
+            return;
+        }
+        // move entries that overflow the window into the main region
+        while (weights[WINDOW] > windowMaximum) {
+            Node<K, V> candidate = heads[WINDOW].next;
+            unlink(candidate);
+            link(candidate, PROBATION);
+            if (weight() <= maximumWeight) {
+                continue;
+            }
+            // admit the candidate only if it is used more often than the
+            // entry it displaces
+            while (weight() > maximumWeight && candidate.region != -1) {
+                Node<K, V> victim = heads[PROBATION].next;
+                if (victim == candidate) {
+                    victim = heads[PROTECTED].next != heads[PROTECTED] ? heads[PROTECTED].next : candidate;
+                }
+                if (victim != candidate
+                        && sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                }
+            }
+        }
+        while (weight() > maximumWeight) {
+            Node<K, V> victim = heads[PROBATION].next;
+            if (victim == heads[PROBATION]) {
+                victim = heads[PROTECTED].next;
+            }
+            if (victim == heads[PROTECTED]) {
+                victim = heads[WINDOW].next;
+            }
+            evict(victim);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        index.remove(node.key);
+        unlink(node);
+        node.region = -1;
+        evictionCount++;
+    }
+
+    /**
+     * Links the node as the most recently used node of the given region.
+     */
+    private void link(Node<K, V> node, int region) {
+        Node<K, V> head = heads[region];
+        node.region = region;
+        node.next = head;
+        node.previous = head.previous;
+        node.previous.next = node;
+        head.previous = node;
+        weights[region] += node.weight;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        weights[node.region] -= node.weight;
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often keys were
+     * used recently. All counters are halved periodically so that old
+     * popularity fades.
+     * <p>
+     * The sketch is sized by the number of cached entries rather than by
+     * their weight, and grows with the cache.
+     * </p>
+     */
+    private static final class FrequencySketch {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int MAXIMUM_CAPACITY = 1 << 24;
+
+        private long[] table;
+        private int mask;
+        private int capacity;
+        private int sampleSize;
+        private int additions;
+
+        FrequencySketch() {
+            resize(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Grows the sketch to track at least the given number of entries.
+         * Growing discards the counts, which are rebuilt as the cache is used.
+         */
+        void ensureCapacity(int size) {
+            if (size > capacity && capacity < MAXIMUM_CAPACITY) {
+                resize(Math.min(Integer.highestOneBit(size - 1) << 1, MAXIMUM_CAPACITY));
+            }
+        }
+
+        private void resize(int capacity) {
+            this.capacity = capacity;
+            // 16 counters per long, about four counters per cached entry
+            table = new long[Math.max(1, capacity >>> 2)];
+            mask = table.length - 1;
+            sampleSize = 10 * capacity;
+            additions = 0;
+        }
+
+        int frequency(int hashCode) {
+            int hash = spread(hashCode);
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                frequency = Math.min(frequency, counter(hash, i));
+            }
+            return frequency;
+        }
+
+        void increment(int hashCode) {
+            int hash = spread(hashCode);
+            int minimum = frequency(hashCode);
+            if (minimum == 15) {
+                return;
+            }
+            // conservative update: only raise the counters that are minimal
+            for (int i = 0; i < 4; i++) {
+                if (counter(hash, i) == minimum) {
+                    int index = indexOf(hash, i);
+                    table[index] += 1L << offsetOf(hash, i);
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int counter(int hash, int i) {
+            return (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xF);
+        }
+
+        private int indexOf(int hash, int i) {
+            int h = (hash + i * 0x9E3779B9) * 0x85EBCA6B;
+            return (h ^ (h >>> 15)) & mask;
+        }
+
+        private static int offsetOf(int hash, int i) {
+            return ((hash >>> (i << 3)) & 15) << 2;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions >>>= 1;
+        }
+
+        private static int spread(int hashCode) {
+            int h = hashCode * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of the {@link List} interface backed by a sequence of
+ * small arrays, also known as an unrolled linked list.
+ * <p>
+ * Elements are stored in chunks of up to 64 elements, so a chunked list
+ * needs far less memory per element than a {@link LinkedList} and scans its
+ * elements at close to array speed. Adding and removing elements at the start
+ * and end of the list takes amortized constant time. Insertions and removals
+ * in the middle only shift elements within one chunk, splitting full chunks
+ * and merging sparse ones.
+ * </p>
+ * <p>
+ * The element counts of the chunks are kept in a Fenwick tree, so random
+ * access takes logarithmic time. Insertions and removals within a chunk
+ * update the tree in logarithmic time. Splitting or merging chunks in the
+ * middle of the list shifts the array of chunks and rebuilds the tree, both
+ * in time linear in the number of chunks; this only happens when a chunk
+ * fills up or runs low.
+ * </p>
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class ChunkedList<E> extends AbstractList<E> implements List<E> {
+    private static final int CHUNK_SIZE = 64;
+    private static final int MIN_CHUNKS = 4;
+
+    private static final class Chunk {
+        final Object[] elements = new Object[CHUNK_SIZE];
+        int start, end;
+
+        int count() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Create a {@link ChunkedList} with the specified elements.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link ChunkedList}
+     */
+    @SafeVarargs
+    public static <E> ChunkedList<E> of(E... elements) {
+        ChunkedList<E> list = new ChunkedList<>();
+        for (E element : elements) {
+            list.addLast(element);
+        }
+        return list;
+    }
+
+    private Chunk[] chunks;
+    private int first, last;
+    private int size;
+    /**
+     * A Fenwick tree over the element counts of the chunks, where
+     * {@code tree[k + 1]} covers the chunk at {@code chunks[k]}. The first and
+     * last chunks count as empty, so operations at the ends of the list
+     * leave the tree unchanged.
+     */
+    private int[] tree;
+
+    /**
+     * Create an empty {@link ChunkedList}.
+     */
+    public ChunkedList() {
+        clear();
+    }
+
+    /**
+     * Create a {@link ChunkedList} with the specified iterable.
+     *
+     * @param iterable the iterable
+     */
+    public ChunkedList(Iterable<E> iterable) {
+        this();
+        for (E element : iterable) {
+            addLast(element);
+        }
+    }
+
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        int k = chunkOf(index);
+        return element(chunks[k], index - offsetOf(k));
+    }
+
+    @Override
+    public E set(int index, E element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        int k = chunkOf(index);
+        Chunk chunk = chunks[k];
+        int slot = chunk.start + index - offsetOf(k);
+        E old = element(chunk, slot - chunk.start);
+        chunk.elements[slot] = element;
+        return old;
+    }
+
+    @Override
+    public void addFirst(E element) {
+        Chunk head = first == last ? null : chunks[first];
+        if (head == null || head.start == 0) {
+            head = new Chunk();
+            head.start = CHUNK_SIZE;
+            head.end = CHUNK_SIZE;
+            insertChunk(first, head);
+        }
+        head.elements[--head.start] = element;
+        size++;
+    }
+
+    @Override
+    public void addLast(E element) {
+        Chunk tail = first == last ? null : chunks[last - 1];
+        if (tail == null || tail.end == CHUNK_SIZE) {
+            tail = new Chunk();
+            insertChunk(last, tail);
+        }
+        tail.elements[tail.end++] = element;
+        size++;
+    }
+
+    @Override
+    public E removeFirst() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        Chunk head = chunks[first];
+        E element = element(head, 0);
+        head.elements[head.start++] = null;
+        size--;
+        if (head.count() == 0) {
+            removeChunk(first);
+        }
+        return element;
+    }
+
+    @Override
+    public E removeLast() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        Chunk tail = chunks[last - 1];
+        E element = element(tail, tail.count() - 1);
+        tail.elements[--tail.end] = null;
+        size--;
+        if (tail.count() == 0) {
+            removeChunk(last - 1);
+        }
+        return element;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (index == 0) {
+            addFirst(element);
+            return;
+        }
+        if (index == size) {
+            addLast(element);
+            return;
+        }
+        int k = chunkOf(index);
+        Chunk chunk = chunks[k];
+        int offset = index - offsetOf(k);
+        if (chunk.count() == CHUNK_SIZE) {
+            // split the full chunk in half
+            Chunk upper = new Chunk();
+            int half = CHUNK_SIZE / 2;
+            System.arraycopy(chunk.elements, half, upper.elements, 0, CHUNK_SIZE - half);
+            Arrays.fill(chunk.elements, half, CHUNK_SIZE, null);
+            upper.end = CHUNK_SIZE - half;
+            chunk.end = half;
+            // inserting the chunk may move the others
+            k = insertChunk(k + 1, upper) - 1;
+            if (offset > half) {
+                chunk = upper;
+                offset -= half;
+                k++;
+            }
+        }
+        int slot = chunk.start + offset;
+        if (chunk.end < CHUNK_SIZE) {
+            System.arraycopy(chunk.elements, slot, chunk.elements, slot + 1, chunk.end - slot);
+            chunk.end++;
+        } else {
+            System.arraycopy(chunk.elements, chunk.start, chunk.elements, chunk.start - 1, offset);
+            chunk.start--;
+            slot--;
+        }
+        chunk.elements[slot] = element;
+        size++;
+        adjust(k, 1);
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (index == 0) {
+            return removeFirst();
+        }
+        if (index == size - 1) {
+            return removeLast();
+        }
+        int k = chunkOf(index);
+        Chunk chunk = chunks[k];
+        int offset = index - offsetOf(k);
+        E element = element(chunk, offset);
+        int slot = chunk.start + offset;
+        // shift the shorter side of the chunk over the removed slot
+        if (offset < chunk.count() - offset - 1) {
+            System.arraycopy(chunk.elements, chunk.start, chunk.elements, chunk.start + 1, offset);
+            chunk.elements[chunk.start++] = null;
+        } else {
+            System.arraycopy(chunk.elements, slot + 1, chunk.elements, slot, chunk.end - slot - 1);
+            chunk.elements[--chunk.end] = null;
+        }
+        size--;
+        adjust(k, -1);
+        if (chunk.count() == 0) {
+            removeChunk(k);
+        } else if (chunk.count() < CHUNK_SIZE / 4) {
+            if (k + 1 < last && chunk.count() + chunks[k + 1].count() <= CHUNK_SIZE) {
+                merge(k);
+            } else if (k > first && chunk.count() + chunks[k - 1].count() <= CHUNK_SIZE) {
+                merge(k - 1);
+            }
+        }
+        return element;
+    }
+
+    @Override
+    public void clear() {
+        chunks = new Chunk[MIN_CHUNKS];
+        first = MIN_CHUNKS / 2;
+        last = first;
+        size = 0;
+        tree = new int[MIN_CHUNKS + 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class ChunkIterator implements Iterator<E> {
+            private int k = first;
+            private int slot = first < last ? chunks[first].start : 0;
+
+            @Override
+            public boolean hasNext() {
+                return k < last;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Chunk chunk = chunks[k];
+                E element = (E) chunk.elements[slot++];
+                if (slot == chunk.end && ++k < last) {
+                    slot = chunks[k].start;
+                }
+                return element;
+            }
+        }
+
+        return new ChunkIterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E element(Chunk chunk, int offset) {
+        return (E) chunk.elements[chunk.start + offset];
+    }
+
+    /**
+     * Returns the index of the chunk holding the element at the given index.
+     */
+    private int chunkOf(int index) {
+        int headCount = chunks[first].count();
+        if (index < headCount) {
+            return first;
+        }
+        if (index >= size - chunks[last - 1].count()) {
+            return last - 1;
+        }
+        // descend the tree to the last chunk preceded by at most the
+        // remaining number of inner elements
+        int remaining = index - headCount;
+        int k = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>>= 1) {
+            if (k + step < tree.length && tree[k + step] <= remaining) {
+                k += step;
+                remaining -= tree[k];
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Returns the index of the first element of the given chunk.
+     */
+    private int offsetOf(int k) {
+        if (k == first) {
+            return 0;
+        }
+        if (k == last - 1) {
+            return size - chunks[k].count();
+        }
+        int offset = chunks[first].count();
+        for (int i = k; i > 0; i -= i & -i) {
+            offset += tree[i];
+        }
+        return offset;
+    }
+
+    /**
+     * Adds {@code delta} to the count of chunk {@code k} in the tree, unless
+     * it is the first or last chunk.
+     */
+    private void adjust(int k, int delta) {
+        if (k > first && k < last - 1) {
+            for (int i = k + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the counts of the chunks.
+     */
+    private void reindex() {
+        if (tree.length == chunks.length + 1) {
+            Arrays.fill(tree, 0);
+        } else {
+            tree = new int[chunks.length + 1];
+        }
+        for (int k = first + 1; k < last - 1; k++) {
+            tree[k + 1] = chunks[k].count();
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Moves the elements of chunk {@code k + 1} into chunk {@code k}.
+     */
+    private void merge(int k) {
+        Chunk target = chunks[k];
+        Chunk source = chunks[k + 1];
+        int count = target.count();
+        System.arraycopy(target.elements, target.start, target.elements, 0, count);
+        Arrays.fill(target.elements, Math.max(count, target.start), target.end, null);
+        System.arraycopy(source.elements, source.start, target.elements, count, source.count());
+        target.start = 0;
+        target.end = count + source.count();
+        removeChunk(k + 1);
+        reindex();
+    }
+
+    /**
+     * Inserts the chunk at index {@code k} and returns the index it ended up
+     * at, which differs if the chunks had to be moved to make room.
+     */
+    private int insertChunk(int k, Chunk chunk) {
+        boolean moved = last == chunks.length && !(k == first && first > 0);
+        if (moved) {
+            int oldFirst = first;
+            if (first > chunks.length / 4) {
+                // reuse the free space at the start of the array
+                int shift = first / 2;
+                System.arraycopy(chunks, first, chunks, first - shift, last - first);
+                Arrays.fill(chunks, last - shift, last, null);
+                first -= shift;
+                last -= shift;
+            } else {
+                grow();
+            }
+            k += first - oldFirst;
+        }
+        if (k == first && first > 0) {
+            // the other chunks stay in place; the old first chunk is now an
+            // inner one
+            chunks[--first] = chunk;
+            if (moved) {
+                reindex();
+            } else if (first + 1 < last - 1) {
+                adjust(first + 1, chunks[first + 1].count());
+            }
+            return first;
+        }
+        System.arraycopy(chunks, k, chunks, k + 1, last - k);
+        chunks[k] = chunk;
+        last++;
+        if (moved || k < last - 1) {
+            reindex();
+        } else if (k - 1 > first) {
+            // appended; the old last chunk is now an inner one
+            adjust(k - 1, chunks[k - 1].count());
+        }
+        return k;
+    }
+
+    /**
+     * Doubles the chunk array, keeping free space at both ends.
+     */
+    private void grow() {
+        Chunk[] newChunks = new Chunk[chunks.length << 1];
+        int count = last - first;
+        int newFirst = (newChunks.length - count) / 4;
+        System.arraycopy(chunks, first, newChunks, newFirst, count);
+        chunks = newChunks;
+        first = newFirst;
+        last = newFirst + count;
+    }
+
+    private void removeChunk(int k) {
+        if (k == first) {
+            // the next chunk becomes the first one
+            if (first + 1 < last - 1) {
+                adjust(first + 1, -chunks[first + 1].count());
+            }
+            chunks[first++] = null;
+        } else if (k == last - 1) {
+            if (last - 2 > first) {
+                adjust(last - 2, -chunks[last - 2].count());
+            }
+            chunks[--last] = null;
+        } else {
+            System.arraycopy(chunks, k + 1, chunks, k, last - k - 1);
+            chunks[--last] = null;
+            reindex();
+        }
+        if (first == last) {
+            // recenter the empty list
+            first = chunks.length / 2;
+            last = first;
+            reindex();
+        }
+    }
+}
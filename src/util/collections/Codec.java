@@ -0,0 +1,219 @@
+package util.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes elements into a variable number of bytes.
+ * <p>
+ * Like {@link FixedWidthCodec}, codecs use absolute positions and never
+ * change the position or limit of the buffers they are given. An encoded
+ * element must be self-delimiting, so {@link #sizeAt} can find its end
+ * without decoding it.
+ * </p>
+ *
+ * @param <E> the type of elements encoded by this codec
+ */
+public interface Codec<E> {
+    /**
+     * A codec for {@code int} values, zigzag encoded as a varint of one to
+     * five bytes.
+     */
+    Codec<Integer> INT = new Codec<>() {
+        @Override
+        public int size(Integer element) {
+            return Varint.size(Varint.zigzag(element));
+        }
+
+        @Override
+        public int write(ByteBuffer buffer, int offset, Integer element) {
+            return Varint.write(buffer, offset, Varint.zigzag(element));
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return (int) Varint.unzigzag(Varint.read(buffer, offset));
+        }
+
+        @Override
+        public int sizeAt(ByteBuffer buffer, int offset) {
+            return Varint.sizeAt(buffer, offset);
+        }
+    };
+
+    /**
+     * A codec for {@code long} values, zigzag encoded as a varint of one to
+     * ten bytes.
+     */
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int size(Long element) {
+            return Varint.size(Varint.zigzag(element));
+        }
+
+        @Override
+        public int write(ByteBuffer buffer, int offset, Long element) {
+            return Varint.write(buffer, offset, Varint.zigzag(element));
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return Varint.unzigzag(Varint.read(buffer, offset));
+        }
+
+        @Override
+        public int sizeAt(ByteBuffer buffer, int offset) {
+            return Varint.sizeAt(buffer, offset);
+        }
+    };
+
+    /**
+     * A codec for {@code double} values in eight bytes.
+     */
+    Codec<Double> DOUBLE = of(FixedWidthCodec.DOUBLE);
+
+    /**
+     * A codec for strings, encoded as a varint byte length followed by the
+     * UTF-8 bytes of the string.
+     */
+    Codec<String> STRING = new Codec<>() {
+        @Override
+        public int size(String element) {
+            int length = utf8Length(element);
+            return Varint.size(length) + length;
+        }
+
+        @Override
+        public int write(ByteBuffer buffer, int offset, String element) {
+            byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+            int header = Varint.write(buffer, offset, bytes.length);
+            buffer.put(offset + header, bytes);
+            return header + bytes.length;
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int offset) {
+            int length = (int) Varint.read(buffer, offset);
+            int start = offset + Varint.sizeAt(buffer, offset);
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int sizeAt(ByteBuffer buffer, int offset) {
+            int header = Varint.sizeAt(buffer, offset);
+            return header + (int) Varint.read(buffer, offset);
+        }
+
+        private static int utf8Length(String string) {
+            int length = string.length();
+            int bytes = length;
+            for (int i = 0; i < length; i++) {
+                char c = string.charAt(i);
+                if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(string.charAt(i + 1))) {
+                        // four bytes for the pair of chars
+                        bytes += 2;
+                        i++;
+                    }
+                    // an unpaired surrogate is replaced by a single '?'
+                } else if (c >= 0x800) {
+                    bytes += 2;
+                } else if (c >= 0x80) {
+                    bytes++;
+                }
+            }
+            return bytes;
+        }
+    };
+
+    /**
+     * Returns a codec that encodes elements with the given fixed width codec.
+     *
+     * @param <E>   the type of elements
+     * @param codec the fixed width codec
+     * @return a codec backed by the given codec
+     */
+    static <E> Codec<E> of(FixedWidthCodec<E> codec) {
+        int width = codec.width();
+        return new Codec<>() {
+            @Override
+            public int width() {
+                return width;
+            }
+
+            @Override
+            public int size(E element) {
+                return width;
+            }
+
+            @Override
+            public int write(ByteBuffer buffer, int offset, E element) {
+                codec.write(buffer, offset, element);
+                return width;
+            }
+
+            @Override
+            public E read(ByteBuffer buffer, int offset) {
+                return codec.read(buffer, offset);
+            }
+
+            @Override
+            public int sizeAt(ByteBuffer buffer, int offset) {
+                return width;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of bytes used by every encoded element, or
+     * {@code -1} if the size depends on the element.
+     *
+     * @return the width of an encoded element in bytes, or {@code -1}
+     */
+    default int width() {
+        return -1;
+    }
+
+    /**
+     * Returns the number of bytes the given element is encoded into.
+     *
+     * @param element the element
+     * @return the size of the encoded element in bytes
+     */
+    int size(E element);
+
+    /**
+     * Writes an element at the given offset of the buffer.
+     *
+     * @param buffer  the buffer to write to
+     * @param offset  the offset of the first byte to write
+     * @param element the element to write
+     * @return the number of bytes written
+     */
+    int write(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Reads an element at the given offset of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the offset of the first byte to read
+     * @return the element read
+     */
+    E read(ByteBuffer buffer, int offset);
+
+    /**
+     * Returns the number of bytes of the encoded element at the given offset
+     * of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the offset of the first byte of the element
+     * @return the size of the encoded element in bytes
+     */
+    int sizeAt(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,114 @@
+package util.collections;
+
+/**
+ * A snapshot of the counters of the instrumented collections of one type
+ * created by the same code.
+ *
+ * @see Instrumentation
+ */
+public final class CollectionMetrics {
+    private final String type;
+    private final String site;
+    private final long operations;
+    private final long resizes;
+    private final long bytesCopied;
+    private final int maxSize;
+    private final int maxCapacity;
+    private final long walks;
+    private final long walkSteps;
+
+    CollectionMetrics(String type, String site, long operations, long resizes, long bytesCopied, int maxSize,
+            int maxCapacity, long walks, long walkSteps) {
+        this.type = type;
+        this.site = site;
+        this.operations = operations;
+        this.resizes = resizes;
+        this.bytesCopied = bytesCopied;
+        this.maxSize = maxSize;
+        this.maxCapacity = maxCapacity;
+        this.walks = walks;
+        this.walkSteps = walkSteps;
+    }
+
+    /**
+     * Returns the simple name of the collection class.
+     *
+     * @return the type of the collections
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the method and line of the code that created the collections.
+     *
+     * @return the creating code
+     */
+    public String getSite() {
+        return site;
+    }
+
+    /**
+     * Returns the number of operations on the collections.
+     *
+     * @return the number of operations
+     */
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the number of times a backing array was replaced by a larger
+     * one.
+     *
+     * @return the number of resizes
+     */
+    public long getResizes() {
+        return resizes;
+    }
+
+    /**
+     * Returns the estimated number of bytes copied by resizes.
+     *
+     * @return the number of bytes copied
+     */
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    /**
+     * Returns the largest size any of the collections reached.
+     *
+     * @return the largest size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the largest capacity any of the collections reached.
+     *
+     * @return the largest capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Returns the average number of nodes walked to reach an index, or 0 if
+     * no walks were recorded.
+     *
+     * @return the average walk length
+     */
+    public double getAverageWalkLength() {
+        return walks == 0 ? 0 : (double) walkSteps / walks;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "CollectionMetrics [type=%s, site=%s, operations=%d, resizes=%d, bytesCopied=%d, maxSize=%d, "
+                        + "maxCapacity=%d, averageWalkLength=%.1f]",
+                type, site, operations, resizes, bytesCopied, maxSize, maxCapacity, getAverageWalkLength());
+    }
+}
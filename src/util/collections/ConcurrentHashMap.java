@@ -0,0 +1,398 @@
+package util.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe implementation of the {@link Map} interface.
+ * <p>
+ * The map is split into independently locked segments, each a chained hash
+ * table. Lookups never lock: they read the current bucket array of a segment
+ * and walk its chain through volatile links. Updates lock only the segment
+ * that owns the key, so writers to different segments proceed in parallel.
+ * Each segment resizes on its own, so a resize copies only that segment's
+ * share of the map and blocks only writers to that segment.
+ * </p>
+ * <p>
+ * {@link #computeIfAbsent} and {@link #merge} are atomic; the given function
+ * is invoked at most once per call, while the segment is locked, and must not
+ * modify this map. Iteration is weakly consistent and {@link #size()} is an
+ * estimate while other threads modify the map.
+ * </p>
+ * <p>
+ * This map does not permit {@code null} keys or values.
+ * </p>
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public final class ConcurrentHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int MAX_SEGMENT_TABLE_LENGTH = 1 << 30;
+    private static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    private static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        volatile Node<K, V>[] table;
+        volatile int count;
+        int threshold;
+
+        Segment(int length) {
+            setTable(newTable(length));
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K, V> Node<K, V>[] newTable(int length) {
+            return (Node<K, V>[]) new Node<?, ?>[length];
+        }
+
+        void setTable(Node<K, V>[] table) {
+            // load factor of 0.75
+            threshold = table.length - (table.length >> 2);
+            this.table = table;
+        }
+
+        Node<K, V> find(int hash, Object key) {
+            Node<K, V>[] tab = table;
+            Node<K, V> node = bucket(tab, hash & (tab.length - 1));
+            while (node != null) {
+                if (node.hash == hash && (node.key == key || node.key.equals(key))) {
+                    return node;
+                }
+                node = node.next;
+            }
+            return null;
+        }
+
+        /**
+         * Adds a node for a key that is known to be absent. The segment must be
+         * locked.
+         */
+        void insert(int hash, K key, V value) {
+            if (count >= threshold) {
+                rehash();
+            }
+            Node<K, V>[] tab = table;
+            int index = hash & (tab.length - 1);
+            BUCKET.setRelease(tab, index, new Node<>(hash, key, value, bucket(tab, index)));
+            count++;
+        }
+
+        /**
+         * Unlinks the node for the given key. The segment must be locked.
+         */
+        Node<K, V> unlink(int hash, Object key) {
+            Node<K, V>[] tab = table;
+            int index = hash & (tab.length - 1);
+            Node<K, V> previous = null;
+            Node<K, V> node = bucket(tab, index);
+            while (node != null) {
+                if (node.hash == hash && (node.key == key || node.key.equals(key))) {
+                    if (previous == null) {
+                        BUCKET.setRelease(tab, index, node.next);
+                    } else {
+                        previous.next = node.next;
+                    }
+                    count--;
+                    return node;
+                }
+                previous = node;
+                node = node.next;
+            }
+            return null;
+        }
+
+        /**
+         * Doubles the bucket array of this segment. Nodes are copied rather
+         * than relinked so that concurrent readers of the old array can keep
+         * walking their chains. The segment must be locked.
+         */
+        void rehash() {
+            Node<K, V>[] oldTable = table;
+            if (oldTable.length >= MAX_SEGMENT_TABLE_LENGTH) {
+                return;
+            }
+            Node<K, V>[] newTable = newTable(oldTable.length << 1);
+            int mask = newTable.length - 1;
+            for (Node<K, V> head : oldTable) {
+                for (Node<K, V> node = head; node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    newTable[index] = new Node<>(node.hash, node.key, node.value, newTable[index]);
+                }
+            }
+            setTable(newTable);
+        }
+
+        synchronized void clear() {
+            setTable(newTable(table.length));
+            count = 0;
+        }
+    }
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+
+    /**
+     * Create a {@link ConcurrentHashMap} that can hold the specified number of
+     * mappings without rehashing, split into the specified number of segments.
+     * The number of segments bounds the number of concurrent writers.
+     *
+     * @param initialCapacity the initial capacity
+     * @param segmentCount    the number of segments, rounded up to a power of
+     *                        two
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentHashMap(int initialCapacity, int segmentCount) {
+        if (initialCapacity <= 0 || segmentCount <= 0 || segmentCount > 1 << 16) {
+            throw new IllegalArgumentException();
+        }
+        int count = segmentCount == 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        int perSegment = HashMap.tableLengthFor(Math.max(1, (initialCapacity + count - 1) / count));
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Create a {@link ConcurrentHashMap} that can hold the specified number of
+     * mappings without rehashing.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public ConcurrentHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Create an empty {@link ConcurrentHashMap} with the default initial
+     * capacity of 16.
+     */
+    public ConcurrentHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_SEGMENTS);
+    }
+
+    @Override
+    public V get(K key) throws NoSuchElementException {
+        Node<K, V> node = find(key);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.value;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Node<K, V> node = find(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public V getOr(K key, Supplier<V> defaultSupplier) {
+        Node<K, V> node = find(key);
+        return node == null ? defaultSupplier.get() : node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (Entry<K, V> entry : this) {
+            if (entry.getValue().equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        int hash = HashMap.hash(key);
+        Segment<K, V> segment = segmentFor(hash);
+        synchronized (segment) {
+            Node<K, V> node = segment.find(hash, key);
+            if (node != null) {
+                V old = node.value;
+                node.value = value;
+                return old;
+            }
+            segment.insert(hash, key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        int hash = HashMap.hash(key);
+        Segment<K, V> segment = segmentFor(hash);
+        synchronized (segment) {
+            Node<K, V> node = segment.find(hash, key);
+            if (node != null) {
+                return node.value;
+            }
+            segment.insert(hash, key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        int hash = HashMap.hash(key);
+        Segment<K, V> segment = segmentFor(hash);
+        Node<K, V> node = segment.find(hash, key);
+        if (node != null) {
+            return node.value;
+        }
+        synchronized (segment) {
+            node = segment.find(hash, key);
+            if (node != null) {
+                return node.value;
+            }
+            V value = function.apply(key);
+            if (value != null) {
+                segment.insert(hash, key, value);
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Objects.requireNonNull(value);
+        int hash = HashMap.hash(key);
+        Segment<K, V> segment = segmentFor(hash);
+        synchronized (segment) {
+            Node<K, V> node = segment.find(hash, key);
+            if (node == null) {
+                segment.insert(hash, key, value);
+                return value;
+            }
+            V merged = function.apply(node.value, value);
+            if (merged == null) {
+                segment.unlink(hash, key);
+            } else {
+                node.value = merged;
+            }
+            return merged;
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        int hash = HashMap.hash(key);
+        Segment<K, V> segment = segmentFor(hash);
+        synchronized (segment) {
+            return segment.unlink(hash, key) != null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.count;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        class EntryIterator implements Iterator<Entry<K, V>> {
+            private int segmentIndex = 0;
+            private Node<K, V>[] table;
+            private int bucketIndex;
+            private Node<K, V> next;
+
+            EntryIterator() {
+                advance();
+            }
+
+            private void advance() {
+                if (next != null) {
+                    next = next.next;
+                }
+                while (next == null) {
+                    if (table != null && bucketIndex < table.length) {
+                        next = bucket(table, bucketIndex++);
+                    } else if (segmentIndex < segments.length) {
+                        table = segments[segmentIndex++].table;
+                        bucketIndex = 0;
+                    } else {
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<K, V> entry = new Entry<>(next.key, next.value);
+                advance();
+                return entry;
+            }
+        }
+
+        return new EntryIterator();
+    }
+
+    private Node<K, V> find(K key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = HashMap.hash(key);
+        return segmentFor(hash).find(hash, key);
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        // the high bits pick the segment, the low bits the bucket
+        return segments[segmentShift == 32 ? 0 : hash >>> segmentShift];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V> bucket(Node<K, V>[] table, int index) {
+        return (Node<K, V>) BUCKET.getAcquire(table, index);
+    }
+}
@@ -14,4 +14,25 @@ public interface DynamicArray {
      * @param capacity the minimum capacity
      */
     void ensureCapacity(int capacity);
+
+    /**
+     * Reduces the capacity of the array to its size, releasing the unused
+     * capacity.
+     */
+    void trimToSize();
+
+    /**
+     * Returns the policy deciding how the array grows and shrinks.
+     * 
+     * @return the growth policy
+     */
+    GrowthPolicy getGrowthPolicy();
+
+    /**
+     * Sets the policy deciding how the array grows and shrinks. A shrinking
+     * policy is consulted after elements are removed.
+     * 
+     * @param policy the growth policy
+     */
+    void setGrowthPolicy(GrowthPolicy policy);
 }
@@ -0,0 +1,99 @@
+package util.collections;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elements of a fixed size in bytes.
+ * <p>
+ * Codecs use absolute positions and never change the position or limit of the
+ * buffers they are given.
+ * </p>
+ *
+ * @param <E> the type of elements encoded by this codec
+ */
+public interface FixedWidthCodec<E> {
+    /**
+     * A codec for {@code int} values.
+     */
+    FixedWidthCodec<Integer> INT = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * A codec for {@code long} values.
+     */
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long element) {
+            buffer.putLong(offset, element);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * A codec for {@code double} values.
+     */
+    FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double element) {
+            buffer.putDouble(offset, element);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * Returns the number of bytes used by every encoded element.
+     *
+     * @return the width of an encoded element in bytes
+     */
+    int width();
+
+    /**
+     * Writes an element at the given offset of the buffer.
+     *
+     * @param buffer  the buffer to write to
+     * @param offset  the offset of the first byte to write
+     * @param element the element to write
+     */
+    void write(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Reads an element at the given offset of the buffer.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the offset of the first byte to read
+     * @return the element read
+     */
+    E read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,275 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An implementation of the {@link List} interface backed by a gap buffer.
+ * <p>
+ * The backing array keeps its free capacity as a gap at the position of the
+ * last insertion or removal. Edits at that position only fill or widen the
+ * gap, and moving the gap to a new position copies just the elements between
+ * the old and the new position. Insertions and removals that cluster around
+ * a moving position, such as typing in a text buffer, therefore take
+ * amortized constant time, while random access stays constant time.
+ * </p>
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class GapList<E> extends AbstractList<E> implements List<E>, DynamicArray {
+    private static final int DEFAULT_CAPACITY = 10;
+    private E[] array;
+    private int gapStart;
+    private int gapEnd;
+    private GrowthPolicy growthPolicy = GrowthPolicy.ONE_AND_A_HALF;
+
+    /**
+     * Create a {@link GapList} with the specified elements.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link GapList}
+     */
+    @SafeVarargs
+    public static <E> GapList<E> of(E... elements) {
+        GapList<E> list = new GapList<>(Math.max(elements.length, 1));
+        for (E element : elements) {
+            list.addLast(element);
+        }
+        return list;
+    }
+
+    /**
+     * Create a {@link GapList} with the specified initial capacity.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    @SuppressWarnings("unchecked")
+    public GapList(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        array = (E[]) new Object[initialCapacity];
+        gapStart = 0;
+        gapEnd = initialCapacity;
+    }
+
+    /**
+     * Create a {@link GapList} with the specified iterable.
+     *
+     * @param iterable the iterable
+     */
+    public GapList(Iterable<E> iterable) {
+        this(iterable instanceof ReadOnlyCollection<E> collection
+                ? Math.max(collection.size(), 1)
+                : DEFAULT_CAPACITY);
+        for (E element : iterable) {
+            addLast(element);
+        }
+    }
+
+    /**
+     * Create a {@link GapList} with the default initial capacity of 10.
+     */
+    public GapList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return array[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    @Override
+    public E set(int index, E element) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        int slot = index < gapStart ? index : index + gapEnd - gapStart;
+        E old = array[slot];
+        array[slot] = element;
+        return old;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(size() + 1);
+        moveGap(index);
+        array[gapStart++] = element;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        moveGap(index);
+        E old = array[gapEnd];
+        array[gapEnd++] = null;
+        shrinkIfSparse();
+        return old;
+    }
+
+    @Override
+    public void addAll(int index, Iterable<? extends E> iterable) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (iterable == this) {
+            iterable = new ArrayList<E>(this);
+        }
+        if (iterable instanceof ReadOnlyCollection<? extends E> collection) {
+            ensureCapacity(size() + collection.size());
+        }
+        moveGap(index);
+        for (E element : iterable) {
+            if (gapStart == gapEnd) {
+                ensureCapacity(size() + 1);
+            }
+            array[gapStart++] = element;
+        }
+    }
+
+    @Override
+    public void removeRange(int from, int to) throws IndexOutOfBoundsException {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        moveGap(from);
+        int newGapEnd = gapEnd + to - from;
+        Arrays.fill(array, gapEnd, newGapEnd, null);
+        gapEnd = newGapEnd;
+        shrinkIfSparse();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(array, null);
+        gapStart = 0;
+        gapEnd = array.length;
+        shrinkIfSparse();
+    }
+
+    @Override
+    public int size() {
+        return array.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class GapIterator implements Iterator<E> {
+            private int slot = gapStart == 0 ? gapEnd : 0;
+
+            @Override
+            public boolean hasNext() {
+                return slot < array.length;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E element = array[slot++];
+                if (slot == gapStart) {
+                    slot = gapEnd;
+                }
+                return element;
+            }
+        }
+
+        return new GapIterator();
+    }
+
+    /**
+     * Ensures that the list has at least the given capacity. The gap stays at
+     * its current position.
+     *
+     * @param minCapacity the minimum capacity
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > array.length) {
+            resize(Math.max(minCapacity, growthPolicy.grow(array.length, minCapacity)));
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        int newCapacity = Math.max(size(), 1);
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+        }
+    }
+
+    @Override
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    @Override
+    public void setGrowthPolicy(GrowthPolicy policy) {
+        growthPolicy = Objects.requireNonNull(policy);
+    }
+
+    private void shrinkIfSparse() {
+        int size = size();
+        int newCapacity = Math.max(growthPolicy.shrink(array.length, size), Math.max(size, 1));
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Copies the elements to a new array of the given capacity, keeping the
+     * gap at its current position.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int newCapacity) {
+        E[] newArray = (E[]) new Object[newCapacity];
+        int tailLength = array.length - gapEnd;
+        System.arraycopy(array, 0, newArray, 0, gapStart);
+        System.arraycopy(array, gapEnd, newArray, newCapacity - tailLength, tailLength);
+        array = newArray;
+        gapEnd = newCapacity - tailLength;
+    }
+
+    /**
+     * Returns the current capacity of this list.
+     *
+     * @return the current capacity
+     */
+    @Override
+    public int getCapacity() {
+        return array.length;
+    }
+
+    /**
+     * Moves the gap so that it starts at the given index, copying only the
+     * elements between the current and the new position.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(array, index, array, gapEnd - count, count);
+            // clear the slots that became part of the gap
+            Arrays.fill(array, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(array, gapEnd, array, gapStart, count);
+            Arrays.fill(array, Math.max(gapEnd, index), gapEnd + count, null);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package util.collections;
+
+/**
+ * Decides how the backing array of a {@link DynamicArray} grows and shrinks.
+ * <p>
+ * The policies defined here never shrink an array; {@link #shrinking()}
+ * returns a policy that does.
+ * </p>
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+    /**
+     * The largest capacity a policy returns; some virtual machines reserve a
+     * few header words in an array.
+     */
+    int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * A policy that doubles the capacity.
+     */
+    GrowthPolicy DOUBLING = (capacity, minCapacity) -> clamp(minCapacity, 2L * capacity);
+
+    /**
+     * A policy that grows the capacity by half.
+     */
+    GrowthPolicy ONE_AND_A_HALF = (capacity, minCapacity) -> clamp(minCapacity, capacity + (capacity >> 1));
+
+    /**
+     * Returns a policy that grows the capacity by a fixed number of elements.
+     *
+     * @param increment the number of elements to grow by
+     * @return a policy growing by the given increment
+     */
+    static GrowthPolicy fixedIncrement(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException();
+        }
+        return (capacity, minCapacity) -> clamp(minCapacity, (long) capacity + increment);
+    }
+
+    /**
+     * Returns a policy that rounds the capacities of the given policy up, so
+     * that the elements fill whole pages of 4 KiB.
+     *
+     * @param policy       the policy deciding the capacity before rounding
+     * @param elementBytes the size of an element in bytes
+     * @return a page-aligned policy
+     */
+    static GrowthPolicy pageAligned(GrowthPolicy policy, int elementBytes) {
+        if (elementBytes <= 0) {
+            throw new IllegalArgumentException();
+        }
+        int pageBytes = 4096;
+
+        class PageAligned implements GrowthPolicy {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return align(policy.grow(capacity, minCapacity));
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                int newCapacity = policy.shrink(capacity, size);
+                return newCapacity < capacity ? Math.min(capacity, align(newCapacity)) : capacity;
+            }
+
+            private int align(int capacity) {
+                long pages = ((long) capacity * elementBytes + pageBytes - 1) / pageBytes;
+                return clamp(capacity, pages * pageBytes / elementBytes);
+            }
+        }
+
+        return new PageAligned();
+    }
+
+    /**
+     * Returns the capacity to grow an array of the given capacity to.
+     *
+     * @param capacity    the current capacity
+     * @param minCapacity the required capacity, greater than the current
+     *                    capacity
+     * @return the new capacity, at least {@code minCapacity}
+     */
+    int grow(int capacity, int minCapacity);
+
+    /**
+     * Returns the capacity to shrink an array of the given capacity and size
+     * to, or the current capacity to keep the array.
+     *
+     * @param capacity the current capacity
+     * @param size     the number of elements in the array
+     * @return the new capacity, at least {@code size}
+     */
+    default int shrink(int capacity, int size) {
+        return capacity;
+    }
+
+    /**
+     * Returns a policy that grows like this policy and shrinks an array to
+     * half occupancy once it is at most a quarter full. The gap between the
+     * two thresholds keeps an array whose size moves back and forth from
+     * being resized on every change.
+     *
+     * @return a shrinking policy
+     */
+    default GrowthPolicy shrinking() {
+        GrowthPolicy growth = this;
+        int minCapacity = 16;
+
+        class Shrinking implements GrowthPolicy {
+            @Override
+            public int grow(int capacity, int required) {
+                return growth.grow(capacity, required);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (capacity <= minCapacity || size > capacity >> 2) {
+                    return capacity;
+                }
+                int newCapacity = growth.grow(0, Math.max(size << 1, minCapacity));
+                return Math.min(capacity, newCapacity);
+            }
+        }
+
+        return new Shrinking();
+    }
+
+    private static int clamp(int minCapacity, long capacity) {
+        return (int) Math.max(minCapacity, Math.min(capacity, MAX_CAPACITY));
+    }
+}
@@ -0,0 +1,288 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of the {@link Map} interface backed by a hash table.
+ * <p>
+ * A hash map stores keys and values in parallel arrays and resolves collisions
+ * with linear probing, providing expected constant time lookup, insertion and
+ * removal. Removed slots are refilled by shifting the following probe run
+ * backwards, so no tombstones accumulate.
+ * </p>
+ * <p>
+ * This map does not permit {@code null} keys.
+ * </p>
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public final class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_TABLE_LENGTH = 1 << 30;
+
+    private K[] keys;
+    private V[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Create a {@link HashMap} with the specified entries.
+     *
+     * @param <K>     the type of keys
+     * @param <V>     the type of values
+     * @param entries the entries
+     * @return a new {@link HashMap}
+     */
+    @SafeVarargs
+    public static <K, V> HashMap<K, V> of(Entry<K, V>... entries) {
+        HashMap<K, V> map = new HashMap<>(Math.max(entries.length, 1));
+        for (Entry<K, V> entry : entries) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    /**
+     * Create a {@link HashMap} that can hold the specified number of mappings
+     * without rehashing.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public HashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        allocate(tableLengthFor(initialCapacity));
+    }
+
+    /**
+     * Create a {@link HashMap} with the specified entries.
+     *
+     * @param entries the entries
+     */
+    public HashMap(Iterable<? extends Entry<? extends K, ? extends V>> entries) {
+        if (entries instanceof ReadOnlyCollection<?> collection) {
+            allocate(tableLengthFor(Math.max(collection.size(), DEFAULT_CAPACITY)));
+        } else {
+            allocate(tableLengthFor(DEFAULT_CAPACITY));
+        }
+        putAll(entries);
+    }
+
+    /**
+     * Create an empty {@link HashMap} with the default initial capacity of 16.
+     */
+    public HashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public V get(K key) throws NoSuchElementException {
+        int index = indexOf(key);
+        if (index < 0) {
+            throw new NoSuchElementException();
+        }
+        return values[index];
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    @Override
+    public V getOr(K key, Supplier<V> defaultSupplier) {
+        int index = indexOf(key);
+        return index < 0 ? defaultSupplier.get() : values[index];
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        int index = hash(key) & mask;
+        K k;
+        while ((k = keys[index]) != null) {
+            if (k == key || k.equals(key)) {
+                V old = values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        if (size >= threshold) {
+            resize(keys.length << 1);
+            index = hash(key) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        class EntryIterator implements Iterator<Entry<K, V>> {
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < keys.length && keys[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<K, V> entry = new Entry<>(keys[index], values[index]);
+                index = advance(index + 1);
+                return entry;
+            }
+        }
+
+        return new EntryIterator();
+    }
+
+    private int indexOf(K key) {
+        if (key == null) {
+            return -1;
+        }
+        int index = hash(key) & mask;
+        K k;
+        while ((k = keys[index]) != null) {
+            if (k == key || k.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the slot at the given index and shifts back every entry of the
+     * following probe run that would otherwise become unreachable.
+     */
+    private void removeAt(int index) {
+        int hole = index;
+        int current = index;
+        while (true) {
+            current = (current + 1) & mask;
+            K k = keys[current];
+            if (k == null) {
+                break;
+            }
+            int home = hash(k) & mask;
+            // The entry may move into the hole unless its home slot lies
+            // cyclically within (hole, current].
+            boolean reachable = hole <= current
+                    ? hole < home && home <= current
+                    : hole < home || home <= current;
+            if (!reachable) {
+                keys[hole] = k;
+                values[hole] = values[current];
+                hole = current;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int newLength) {
+        if (newLength > MAX_TABLE_LENGTH) {
+            throw new IllegalStateException("Map is full");
+        }
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(newLength);
+        for (int i = 0; i < oldKeys.length; i++) {
+            K k = oldKeys[i];
+            if (k != null) {
+                int index = hash(k) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = k;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        mask = length - 1;
+        // load factor of 0.75
+        threshold = length - (length >> 2);
+    }
+
+    static int tableLengthFor(int capacity) {
+        // smallest power of two holding capacity at a load factor of 0.75
+        long needed = (long) capacity + (capacity / 3) + 1;
+        if (needed >= MAX_TABLE_LENGTH) {
+            return MAX_TABLE_LENGTH;
+        }
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    static int hash(Object key) {
+        // Fibonacci hashing spreads clustered hash codes across the table
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
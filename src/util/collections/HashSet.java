@@ -0,0 +1,306 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An implementation of the {@link Set} interface backed by a hash table.
+ * <p>
+ * A hash set resolves collisions with linear probing, providing expected
+ * constant time {@link #contains}, {@link #add} and {@link #remove}. The bulk
+ * queries run in time linear in the size of their argument.
+ * </p>
+ * <p>
+ * This set does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in this set
+ */
+public final class HashSet<E> extends AbstractSet<E> implements Set<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_TABLE_LENGTH = 1 << 30;
+
+    private E[] elements;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Create a {@link HashSet} with the specified elements.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link HashSet}
+     */
+    @SafeVarargs
+    public static <E> HashSet<E> of(E... elements) {
+        HashSet<E> set = new HashSet<>(Math.max(elements.length, 1));
+        for (E element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    /**
+     * Create a {@link HashSet} that can hold the specified number of elements
+     * without rehashing.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public HashSet(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        allocate(HashMap.tableLengthFor(initialCapacity));
+    }
+
+    /**
+     * Create a {@link HashSet} with the specified iterable.
+     *
+     * @param iterable the iterable
+     */
+    public HashSet(Iterable<? extends E> iterable) {
+        if (iterable instanceof ReadOnlyCollection<?> collection) {
+            allocate(HashMap.tableLengthFor(Math.max(collection.size(), DEFAULT_CAPACITY)));
+        } else {
+            allocate(HashMap.tableLengthFor(DEFAULT_CAPACITY));
+        }
+        for (E element : iterable) {
+            add(element);
+        }
+    }
+
+    /**
+     * Create an empty {@link HashSet} with the default initial capacity of 16.
+     */
+    public HashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return indexOf(element) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(Iterable<? extends E> iterable) {
+        if (iterable == this) {
+            return true;
+        }
+        for (E element : iterable) {
+            if (indexOf(element) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean containsAny(Iterable<? extends E> iterable) {
+        for (E element : iterable) {
+            if (indexOf(element) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSupersetOf(Iterable<? extends E> iterable) {
+        return containsAll(iterable);
+    }
+
+    @Override
+    public boolean isSubsetOf(Iterable<E> iterable) {
+        if (iterable == this || size == 0) {
+            return true;
+        }
+        // an iterable with fewer elements than this set cannot contain it
+        int count = 0;
+        if (iterable instanceof ReadOnlyCollection<E> collection) {
+            count = collection.size();
+        } else {
+            for (Iterator<E> iterator = iterable.iterator(); iterator.hasNext() && count < size; iterator.next()) {
+                count++;
+            }
+        }
+        if (count < size) {
+            return false;
+        }
+        // Count the distinct elements of this set that occur in the iterable
+        // by recording their slots, so duplicates in the iterable are ignored.
+        // The slots are kept in a table sized by this set's size, which is at
+        // most the size of the iterable, rather than by its capacity.
+        int[] seen = new int[HashMap.tableLengthFor(size)];
+        int seenMask = seen.length - 1;
+        int found = 0;
+        for (E element : iterable) {
+            int index = indexOf(element);
+            if (index >= 0 && markSeen(seen, seenMask, index) && ++found == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the slot in the table of seen slots, which holds each slot plus
+     * one. Returns {@code false} if the slot was already recorded.
+     */
+    private static boolean markSeen(int[] seen, int seenMask, int index) {
+        int h = index * 0x9E3779B9;
+        int i = (h ^ (h >>> 16)) & seenMask;
+        int e;
+        while ((e = seen[i]) != 0) {
+            if (e == index + 1) {
+                return false;
+            }
+            i = (i + 1) & seenMask;
+        }
+        seen[i] = index + 1;
+        return true;
+    }
+
+    @Override
+    public boolean add(E element) {
+        Objects.requireNonNull(element);
+        int index = HashMap.hash(element) & mask;
+        E e;
+        while ((e = elements[index]) != null) {
+            if (e == element || e.equals(element)) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        if (size >= threshold) {
+            resize(elements.length << 1);
+            index = HashMap.hash(element) & mask;
+            while (elements[index] != null) {
+                index = (index + 1) & mask;
+            }
+        }
+        elements[index] = element;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class SetIterator implements Iterator<E> {
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < elements.length && elements[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E element = elements[index];
+                index = advance(index + 1);
+                return element;
+            }
+        }
+
+        return new SetIterator();
+    }
+
+    private int indexOf(Object element) {
+        if (element == null) {
+            return -1;
+        }
+        int index = HashMap.hash(element) & mask;
+        E e;
+        while ((e = elements[index]) != null) {
+            if (e == element || e.equals(element)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the slot at the given index and shifts back every element of the
+     * following probe run that would otherwise become unreachable.
+     */
+    private void removeAt(int index) {
+        int hole = index;
+        int current = index;
+        while (true) {
+            current = (current + 1) & mask;
+            E e = elements[current];
+            if (e == null) {
+                break;
+            }
+            int home = HashMap.hash(e) & mask;
+            boolean reachable = hole <= current
+                    ? hole < home && home <= current
+                    : hole < home || home <= current;
+            if (!reachable) {
+                elements[hole] = e;
+                hole = current;
+            }
+        }
+        elements[hole] = null;
+        size--;
+    }
+
+    private void resize(int newLength) {
+        if (newLength > MAX_TABLE_LENGTH) {
+            throw new IllegalStateException("Set is full");
+        }
+        E[] oldElements = elements;
+        allocate(newLength);
+        for (E e : oldElements) {
+            if (e != null) {
+                int index = HashMap.hash(e) & mask;
+                while (elements[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                elements[index] = e;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int length) {
+        elements = (E[]) new Object[length];
+        mask = length - 1;
+        // load factor of 0.75
+        threshold = length - (length >> 2);
+    }
+}
@@ -0,0 +1,220 @@
+package util.collections;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+/**
+ * Opt-in instrumentation of {@link ArrayList}, {@link ArrayDeque} and
+ * {@link LinkedList}.
+ * <p>
+ * Instrumentation is enabled by starting the JVM with the system property
+ * {@code util.collections.instrumentation=true}. When it is disabled, the
+ * probes in the collections are guarded by the constant {@link #ENABLED} and
+ * are removed by the JIT compiler, so they cost nothing.
+ * </p>
+ * <p>
+ * When it is enabled, every collection is attributed to the code that
+ * created it, and the collections created by the same code share one set of
+ * counters: operations, resizes and the bytes they copied, the largest size
+ * and capacity reached, and the number and length of the walks through the
+ * nodes of a linked list. The counters are reported to a {@link MetricsSink}
+ * by {@link #publish}, and to Java Flight Recorder as periodic
+ * {@code util.collections.Statistics} events. Every resize is also recorded
+ * as a {@code util.collections.Resize} event.
+ * </p>
+ */
+public final class Instrumentation {
+    /**
+     * Whether instrumentation is enabled.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("util.collections.instrumentation");
+
+    private static final String PACKAGE = Instrumentation.class.getPackageName();
+    /**
+     * The estimated size of a reference; the JVM compresses references for
+     * heaps below 32 GiB by default.
+     */
+    private static final int REFERENCE_BYTES = Runtime.getRuntime().maxMemory() < (32L << 30) ? 4 : 8;
+
+    static {
+        if (ENABLED) {
+            FlightRecorder.addPeriodicEvent(StatisticsEvent.class, Instrumentation::emitStatistics);
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Reports the counters of all instrumented collections to the given sink,
+     * one {@link CollectionMetrics} per collection type and creating code.
+     *
+     * @param sink the sink to report to
+     */
+    public static void publish(MetricsSink sink) {
+        for (Entry<String, Probe> entry : Probes.BY_SITE) {
+            sink.accept(entry.getValue().snapshot());
+        }
+    }
+
+    /**
+     * Returns the probe for a collection of the given type created by the
+     * calling code, or {@code null} if instrumentation is disabled.
+     */
+    static Probe probe(Class<?> type) {
+        if (!ENABLED) {
+            return null;
+        }
+        String site = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(PACKAGE + ".")
+                        || frame.getClassName().lastIndexOf('.') != PACKAGE.length())
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+        String name = type.getSimpleName();
+        return Probes.BY_SITE.computeIfAbsent(name + " " + site, key -> new Probe(name, site));
+    }
+
+    private static void emitStatistics() {
+        publish(metrics -> {
+            StatisticsEvent event = new StatisticsEvent();
+            event.type = metrics.getType();
+            event.site = metrics.getSite();
+            event.operations = metrics.getOperations();
+            event.resizes = metrics.getResizes();
+            event.bytesCopied = metrics.getBytesCopied();
+            event.maxSize = metrics.getMaxSize();
+            event.maxCapacity = metrics.getMaxCapacity();
+            event.averageWalkLength = metrics.getAverageWalkLength();
+            event.commit();
+        });
+    }
+
+    /**
+     * Holds the probes, so that their map is created on first use rather
+     * than with the first collection while instrumentation is disabled.
+     */
+    private static final class Probes {
+        static final ConcurrentHashMap<String, Probe> BY_SITE = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The counters shared by the collections of one type created by the same
+     * code.
+     */
+    static final class Probe {
+        private final String type;
+        private final String site;
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder resizes = new LongAdder();
+        private final LongAdder bytesCopied = new LongAdder();
+        private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxCapacity = new LongAccumulator(Math::max, 0);
+        private final LongAdder walks = new LongAdder();
+        private final LongAdder walkSteps = new LongAdder();
+
+        Probe(String type, String site) {
+            this.type = type;
+            this.site = site;
+        }
+
+        /**
+         * Records an operation.
+         */
+        void operation() {
+            operations.increment();
+        }
+
+        /**
+         * Records an operation that added elements.
+         */
+        void added(int size, int capacity) {
+            operations.increment();
+            maxSize.accumulate(size);
+            maxCapacity.accumulate(capacity);
+        }
+
+        /**
+         * Records a resize of the backing array that copied the given number
+         * of elements.
+         */
+        void resized(int oldCapacity, int newCapacity, int copied) {
+            long bytes = (long) copied * REFERENCE_BYTES;
+            resizes.increment();
+            bytesCopied.add(bytes);
+            maxCapacity.accumulate(newCapacity);
+            ResizeEvent event = new ResizeEvent();
+            if (event.isEnabled()) {
+                event.type = type;
+                event.site = site;
+                event.oldCapacity = oldCapacity;
+                event.newCapacity = newCapacity;
+                event.bytesCopied = bytes;
+                event.commit();
+            }
+        }
+
+        /**
+         * Records an operation that walked the given number of nodes.
+         */
+        void walked(int steps) {
+            operations.increment();
+            walks.increment();
+            walkSteps.add(steps);
+        }
+
+        CollectionMetrics snapshot() {
+            return new CollectionMetrics(type, site, operations.sum(), resizes.sum(), bytesCopied.sum(),
+                    (int) maxSize.get(), (int) maxCapacity.get(), walks.sum(), walkSteps.sum());
+        }
+    }
+
+    @Name("util.collections.Resize")
+    @Label("Collection Resize")
+    @Category("Collections")
+    static final class ResizeEvent extends Event {
+        @Label("Type")
+        String type;
+        @Label("Site")
+        String site;
+        @Label("Old Capacity")
+        int oldCapacity;
+        @Label("New Capacity")
+        int newCapacity;
+        @Label("Bytes Copied")
+        @DataAmount
+        long bytesCopied;
+    }
+
+    @Name("util.collections.Statistics")
+    @Label("Collection Statistics")
+    @Category("Collections")
+    @Period("10 s")
+    static final class StatisticsEvent extends Event {
+        @Label("Type")
+        String type;
+        @Label("Site")
+        String site;
+        @Label("Operations")
+        long operations;
+        @Label("Resizes")
+        long resizes;
+        @Label("Bytes Copied")
+        @DataAmount
+        long bytesCopied;
+        @Label("Max Size")
+        int maxSize;
+        @Label("Max Capacity")
+        int maxCapacity;
+        @Label("Average Walk Length")
+        double averageWalkLength;
+    }
+}
@@ -0,0 +1,294 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+/**
+ * A list of {@code int} values backed by an {@code int} array.
+ * <p>
+ * An int array list stores its elements unboxed and provides constant time
+ * random access to them. It can be read as a {@link ReadOnlyList} of
+ * {@link Integer}, in which case elements are boxed on access.
+ * </p>
+ */
+public final class IntArrayList extends AbstractList<Integer> implements DynamicArray {
+    private static final int DEFAULT_CAPACITY = 10;
+    private int[] array;
+    private int size;
+    private GrowthPolicy growthPolicy = GrowthPolicy.ONE_AND_A_HALF;
+
+    /**
+     * Create an {@link IntArrayList} with the specified elements.
+     *
+     * @param elements the elements
+     * @return a new {@link IntArrayList}
+     */
+    public static IntArrayList of(int... elements) {
+        IntArrayList list = new IntArrayList(Math.max(elements.length, 1));
+        list.addAll(elements);
+        return list;
+    }
+
+    /**
+     * Create an {@link IntArrayList} with the specified initial capacity.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        ensureCapacity(initialCapacity);
+        size = 0;
+    }
+
+    /**
+     * Create an {@link IntArrayList} with the default initial capacity of 10.
+     */
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param index the index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getInt(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return array[index];
+    }
+
+    @Override
+    public Integer get(int index) throws IndexOutOfBoundsException {
+        return getInt(index);
+    }
+
+    /**
+     * Adds an element to the end of this list.
+     *
+     * @param element the element to add
+     */
+    public void addInt(int element) {
+        ensureCapacity(size + 1);
+        array[size++] = element;
+    }
+
+    /**
+     * Adds an element at the specified position in this list.
+     *
+     * @param index   the index at which the specified element is to be
+     * @param element the element to be added
+     */
+    public void addInt(int index, int element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(array, index, array, index + 1, size - index);
+        array[index] = element;
+        size++;
+    }
+
+    /**
+     * Adds all of the specified elements to the end of this list.
+     *
+     * @param elements the elements to add
+     */
+    public void addAll(int[] elements) {
+        addAll(elements, 0, elements.length);
+    }
+
+    /**
+     * Adds a range of the specified elements to the end of this list.
+     *
+     * @param elements the elements to add
+     * @param offset   the index of the first element to add
+     * @param length   the number of elements to add
+     */
+    public void addAll(int[] elements, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > elements.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(size + length);
+        System.arraycopy(elements, offset, array, size, length);
+        size += length;
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the
+     * specified element.
+     *
+     * @param index   the index of the element to replace
+     * @param element the element to be stored at the specified position
+     * @return the element previously at the specified position
+     */
+    public int setInt(int index, int element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        int old = array[index];
+        array[index] = element;
+        return old;
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     *
+     * @param index the index of the element to remove
+     * @return the element that was removed from the list
+     */
+    public int removeInt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        int old = array[index];
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        shrinkIfSparse();
+        return old;
+    }
+
+    /**
+     * Checks if this list contains the specified element.
+     *
+     * @param element the element to search for
+     * @return {@code true} if this list contains the specified element,
+     *         {@code false} otherwise
+     */
+    public boolean containsInt(int element) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Integer element) {
+        return element != null && containsInt(element);
+    }
+
+    /**
+     * Returns a copy of the elements of this list.
+     *
+     * @return a new array containing the elements of this list
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(array, size);
+    }
+
+    /**
+     * Sorts this list in ascending order. Large lists are radix
+     * sorted in linear time.
+     */
+    public void sort() {
+        Sorting.sort(array, 0, size);
+    }
+
+    /**
+     * Searches this list, which must be sorted, for the specified value using
+     * binary search.
+     *
+     * @param value the value to search for
+     * @return the index of the value, or {@code -(insertion point) - 1} if
+     *         this list does not contain it
+     */
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(array, 0, size, value);
+    }
+
+    /**
+     * Removes all of the elements from this list.
+     */
+    public void clear() {
+        size = 0;
+        shrinkIfSparse();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        class IntIterator implements PrimitiveIterator.OfInt {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return array[i++];
+            }
+        }
+
+        return new IntIterator();
+    }
+
+    /**
+     * Ensures that the list has at least the given capacity.
+     *
+     * @param minCapacity the minimum capacity
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (array == null) {
+            array = new int[Math.max(minCapacity, 1)];
+        } else if (minCapacity > array.length) {
+            array = Arrays.copyOf(array, Math.max(minCapacity, growthPolicy.grow(array.length, minCapacity)));
+        }
+    }
+
+    @Override
+    public void trimToSize() {
+        int newCapacity = Math.max(size, 1);
+        if (newCapacity < array.length) {
+            array = Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    @Override
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    @Override
+    public void setGrowthPolicy(GrowthPolicy policy) {
+        growthPolicy = Objects.requireNonNull(policy);
+    }
+
+    private void shrinkIfSparse() {
+        int newCapacity = Math.max(growthPolicy.shrink(array.length, size), Math.max(size, 1));
+        if (newCapacity < array.length) {
+            array = Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the current capacity of this list.
+     *
+     * @return the current capacity
+     */
+    @Override
+    public int getCapacity() {
+        if (array == null) {
+            return 0;
+        }
+        return array.length;
+    }
+}
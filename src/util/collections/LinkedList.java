@@ -1,5 +1,10 @@
 package util.collections;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
 /**
  * An implementation of the {@link List} interface backed by linked nodes.
  * <p>
@@ -33,6 +38,7 @@ public final class LinkedList<E> extends AbstractList<E> implements List<E> {
 
     private final Node<E> head, tail;
     private int size;
+    private final Instrumentation.Probe probe = Instrumentation.probe(LinkedList.class);
 
     /**
      * Create an empty {@link LinkedList}.
@@ -70,6 +76,9 @@ public final class LinkedList<E> extends AbstractList<E> implements List<E> {
 
     @Override
     public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
         return getNode(index).value;
     }
 
@@ -80,33 +89,221 @@ public final class LinkedList<E> extends AbstractList<E> implements List<E> {
 
     @Override
     public void add(int index, E element) {
-        Node<E> node = new Node<>();
-        node.value = element;
-        node.next = getNode(index);
-        node.previous = node.next.previous;
-        node.previous.next = node;
-        node.next.previous = node;
-        size++;
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        linkBefore(index == size ? tail : getNode(index), element);
     }
 
     @Override
     public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
         Node<E> node = getNode(index);
-        node.previous.next = node.next;
-        node.next.previous = node.previous;
-        size--;
+        unlink(node);
         return node.value;
     }
 
     @Override
     public E set(int index, E element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
         Node<E> node = getNode(index);
         E old = node.value;
         node.value = element;
         return old;
     }
 
+    /**
+     * Adds all of the elements of the specified iterable at the specified
+     * position in this list, locating the position only once.
+     * 
+     * @param index    the index at which the first element is to be added
+     * @param iterable the elements to add
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void addAll(int index, Iterable<? extends E> iterable) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node<E> successor = index == size ? tail : getNode(index);
+        for (E element : iterable == this ? new ArrayList<E>(this) : iterable) {
+            linkBefore(successor, element);
+        }
+    }
+
+    @Override
+    public void removeRange(int from, int to) throws IndexOutOfBoundsException {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (from == to) {
+            return;
+        }
+        Node<E> first = getNode(from);
+        Node<E> last = first;
+        for (int i = from + 1; i < to; i++) {
+            last = last.next;
+        }
+        first.previous.next = last.next;
+        last.next.previous = first.previous;
+        size -= to - from;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = false;
+        for (Node<E> node = head.next; node != tail; node = node.next) {
+            if (filter.test(node.value)) {
+                unlink(node);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        for (Node<E> node = head.next; node != tail; node = node.next) {
+            node.value = operator.apply(node.value);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class NodeIterator implements Iterator<E> {
+            private Node<E> current = head.next;
+
+            @Override
+            public boolean hasNext() {
+                return current != tail;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E value = current.value;
+                current = current.next;
+                return value;
+            }
+        }
+
+        return new NodeIterator();
+    }
+
+    @Override
+    public ListCursor<E> cursor(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        class NodeCursor implements ListCursor<E> {
+            private Node<E> next = getNode(index);
+            private Node<E> lastReturned;
+            private int nextIndex = index;
+
+            @Override
+            public boolean hasNext() {
+                return next != tail;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = next.next;
+                nextIndex++;
+                return lastReturned.value;
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return next.previous != head;
+            }
+
+            @Override
+            public E previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                next = next.previous;
+                lastReturned = next;
+                nextIndex--;
+                return lastReturned.value;
+            }
+
+            @Override
+            public int nextIndex() {
+                return nextIndex;
+            }
+
+            @Override
+            public void set(E element) {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                lastReturned.value = element;
+            }
+
+            @Override
+            public void add(E element) {
+                linkBefore(next, element);
+                nextIndex++;
+                lastReturned = null;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                if (next == lastReturned) {
+                    next = lastReturned.next;
+                } else {
+                    nextIndex--;
+                }
+                unlink(lastReturned);
+                lastReturned = null;
+            }
+        }
+
+        return new NodeCursor();
+    }
+
+    private void linkBefore(Node<E> successor, E element) {
+        Node<E> node = new Node<>();
+        node.value = element;
+        node.next = successor;
+        node.previous = successor.previous;
+        node.previous.next = node;
+        successor.previous = node;
+        size++;
+        if (Instrumentation.ENABLED) {
+            probe.added(size, size);
+        }
+    }
+
+    private void unlink(Node<E> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        size--;
+    }
+
     private Node<E> getNode(int index) {
+        if (Instrumentation.ENABLED) {
+            // the first and last nodes are reached without a walk
+            if (index == 0 || index >= size - 1) {
+                probe.operation();
+            } else {
+                probe.walked(index > size >> 1 ? size - index : index + 1);
+            }
+        }
         if (index > size >> 1) {
             Node<E> current = tail;
             for (int i = size - 1; i >= index; i--) {
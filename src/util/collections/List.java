@@ -2,6 +2,8 @@ package util.collections;
 
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a list, also known as a sequence, of elements.
@@ -142,8 +144,85 @@ public interface List<E> extends ReadOnlyList<E>, Deque<E>, Collection<E> {
      */
     @Override
     default void clear() {
-        while (!isEmpty()) {
-            removeLast();
+        removeRange(0, size());
+    }
+
+    /**
+     * Adds all of the elements of the specified iterable to the end of this
+     * list, in iteration order.
+     * 
+     * @param iterable the elements to add
+     */
+    default void addAll(Iterable<? extends E> iterable) {
+        addAll(size(), iterable);
+    }
+
+    /**
+     * Adds all of the elements of the specified iterable at the specified
+     * position in this list, in iteration order.
+     * 
+     * @param index    the index at which the first element is to be added
+     * @param iterable the elements to add
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    default void addAll(int index, Iterable<? extends E> iterable) throws IndexOutOfBoundsException {
+        ListCursor<E> cursor = cursor(index);
+        for (E element : iterable == this ? new ArrayList<E>(this) : iterable) {
+            cursor.add(element);
+        }
+    }
+
+    /**
+     * Removes the elements from index {@code from}, inclusive, to index
+     * {@code to}, exclusive, from this list.
+     * 
+     * @param from the index of the first element to remove
+     * @param to   the index after the last element to remove
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    default void removeRange(int from, int to) throws IndexOutOfBoundsException {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException();
+        }
+        ListCursor<E> cursor = cursor(from);
+        for (int i = from; i < to; i++) {
+            cursor.next();
+            cursor.remove();
+        }
+    }
+
+    /**
+     * Removes all of the elements of this list that satisfy the specified
+     * predicate.
+     * 
+     * @param filter the predicate selecting the elements to remove
+     * @return {@code true} if any elements were removed, {@code false}
+     *         otherwise
+     */
+    default boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        ListCursor<E> cursor = cursor();
+        while (cursor.hasNext()) {
+            if (filter.test(cursor.next())) {
+                cursor.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Replaces each element of this list with the result of applying the
+     * specified operator to it.
+     * 
+     * @param operator the operator to apply to each element
+     */
+    default void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        ListCursor<E> cursor = cursor();
+        while (cursor.hasNext()) {
+            cursor.set(operator.apply(cursor.next()));
         }
     }
 
@@ -157,13 +236,101 @@ public interface List<E> extends ReadOnlyList<E>, Deque<E>, Collection<E> {
      */
     @Override
     default boolean remove(E element) {
-        for (int i = 0; i < size(); i++) {
-            if (Objects.equals(get(i), element)) {
-                remove(i);
+        ListCursor<E> cursor = cursor();
+        while (cursor.hasNext()) {
+            if (Objects.equals(cursor.next(), element)) {
+                cursor.remove();
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns a cursor positioned at the start of this list.
+     * 
+     * @return a cursor positioned before the first element of this list
+     */
+    default ListCursor<E> cursor() {
+        return cursor(0);
+    }
+
+    /**
+     * Returns a cursor positioned immediately before the element at the
+     * specified index.
+     * 
+     * @param index the index of the first element to be returned by
+     *              {@link ListCursor#next()}
+     * @return a cursor positioned before the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    default ListCursor<E> cursor(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        class IndexCursor implements ListCursor<E> {
+            private int nextIndex = index;
+            private int lastIndex = -1;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastIndex = nextIndex++;
+                return get(lastIndex);
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return nextIndex > 0;
+            }
+
+            @Override
+            public E previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                lastIndex = --nextIndex;
+                return get(lastIndex);
+            }
+
+            @Override
+            public int nextIndex() {
+                return nextIndex;
+            }
+
+            @Override
+            public void set(E element) {
+                if (lastIndex < 0) {
+                    throw new IllegalStateException();
+                }
+                List.this.set(lastIndex, element);
+            }
+
+            @Override
+            public void add(E element) {
+                List.this.add(nextIndex++, element);
+                lastIndex = -1;
+            }
+
+            @Override
+            public void remove() {
+                if (lastIndex < 0) {
+                    throw new IllegalStateException();
+                }
+                List.this.remove(lastIndex);
+                nextIndex = lastIndex;
+                lastIndex = -1;
+            }
+        }
+
+        return new IndexCursor();
+    }
+
 }
@@ -0,0 +1,83 @@
+package util.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a bidirectional cursor over a {@link List}.
+ * <p>
+ * A cursor always lies between two elements of the list. {@link #next()} and
+ * {@link #previous()} move it across one element and return that element,
+ * which then becomes the target of {@link #set} and {@link #remove()}.
+ * </p>
+ *
+ * @param <E> the type of elements in the list
+ */
+public interface ListCursor<E> extends Iterator<E> {
+    /**
+     * Returns whether there is an element before this cursor.
+     *
+     * @return {@code true} if there is an element before this cursor,
+     *         {@code false} otherwise
+     */
+    boolean hasPrevious();
+
+    /**
+     * Moves this cursor backwards and returns the element it moved across.
+     *
+     * @return the previous element
+     * @throws NoSuchElementException if there is no element before this cursor
+     */
+    E previous() throws NoSuchElementException;
+
+    /**
+     * Returns the index of the element that would be returned by
+     * {@link #next()}.
+     *
+     * @return the index of the next element, or the size of the list if the
+     *         cursor is at the end
+     */
+    int nextIndex();
+
+    /**
+     * Returns the index of the element that would be returned by
+     * {@link #previous()}.
+     *
+     * @return the index of the previous element, or {@code -1} if the cursor
+     *         is at the start
+     */
+    default int previousIndex() {
+        return nextIndex() - 1;
+    }
+
+    /**
+     * Replaces the element last returned by {@link #next()} or
+     * {@link #previous()}.
+     *
+     * @param element the element to be stored
+     * @throws IllegalStateException if no element has been returned since the
+     *                               last call to {@link #add} or
+     *                               {@link #remove()}
+     */
+    void set(E element) throws IllegalStateException;
+
+    /**
+     * Inserts an element immediately before this cursor, so that a subsequent
+     * call to {@link #next()} is unaffected and a call to {@link #previous()}
+     * returns the new element.
+     *
+     * @param element the element to add
+     */
+    void add(E element);
+
+    /**
+     * Removes the element last returned by {@link #next()} or
+     * {@link #previous()}.
+     *
+     * @throws IllegalStateException if no element has been returned since the
+     *                               last call to {@link #add} or
+     *                               {@link #remove()}
+     */
+    @Override
+    void remove() throws IllegalStateException;
+}
@@ -0,0 +1,110 @@
+package util.collections;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Represents a map of keys and values.
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public interface Map<K, V> extends ReadOnlyMap<K, V> {
+    /**
+     * Associates the given value with the given key in this map.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value previously associated with the given key, or
+     *         {@code null} if there was no mapping for the key
+     */
+    V put(K key, V value);
+
+    /**
+     * Removes the mapping for the given key from this map, if it is present.
+     *
+     * @param key the key
+     * @return {@code true} if this map changed as a result of the call,
+     *         {@code false} otherwise
+     */
+    boolean remove(K key);
+
+    /**
+     * Removes all mappings from this map.
+     */
+    void clear();
+
+    /**
+     * Adds all of the given entries to this map.
+     *
+     * @param entries the entries to add
+     */
+    default void putAll(Iterable<? extends Entry<? extends K, ? extends V>> entries) {
+        for (Entry<? extends K, ? extends V> entry : entries) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Associates the given value with the given key if this map does not
+     * contain the key yet.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value currently associated with the given key, or
+     *         {@code null} if the given value was added
+     */
+    default V putIfAbsent(K key, V value) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        put(key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value associated with the given key, computing it with the
+     * given function and adding it to this map if the map does not contain
+     * the key yet. If the function returns {@code null}, nothing is added.
+     *
+     * @param key      the key
+     * @param function the function computing the value from the key
+     * @return the current or computed value associated with the given key
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        V value = function.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Associates the given value with the given key if this map does not
+     * contain the key yet, or otherwise replaces the current value with the
+     * result of the given function. If the function returns {@code null}, the
+     * mapping is removed.
+     *
+     * @param key      the key
+     * @param value    the value to add, or to combine with the current value
+     * @param function the function combining the current and the given value
+     * @return the new value associated with the given key, or {@code null} if
+     *         the mapping was removed
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        if (!containsKey(key)) {
+            put(key, value);
+            return value;
+        }
+        V merged = function.apply(get(key), value);
+        if (merged == null) {
+            remove(key);
+        } else {
+            put(key, merged);
+        }
+        return merged;
+    }
+}
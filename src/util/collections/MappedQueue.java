@@ -0,0 +1,401 @@
+package util.collections;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * A durable implementation of the {@link Queue} interface backed by
+ * memory-mapped files.
+ * <p>
+ * Elements are encoded by a {@link Codec} and appended as records to segment
+ * files of a fixed size in a directory. When a record does not fit into the
+ * current segment, a new segment is started. Every record carries its length
+ * and a CRC-32C checksum, so a record torn by a crash is detected and
+ * discarded when the queue is opened again.
+ * </p>
+ * <p>
+ * Writes go to the page cache only. Every given number of enqueued or
+ * dequeued elements, and on {@link #force()} and {@link #close()}, the
+ * written records are forced to disk and the position of the consumer is
+ * written to a checkpoint file. Segments that were consumed entirely are
+ * deleted after the checkpoint that passes them is on disk. After a crash,
+ * elements dequeued since the last checkpoint are delivered again, and
+ * elements enqueued since the last checkpoint may be lost.
+ * </p>
+ * <p>
+ * Like {@link ArrayDeque}, a mapped queue is not thread-safe.
+ * </p>
+ *
+ * @param <E> the type of elements in this queue
+ */
+public final class MappedQueue<E> implements Queue<E>, Closeable {
+    private static final int DEFAULT_SEGMENT_BYTES = 1 << 26;
+    private static final int DEFAULT_FORCE_INTERVAL = 1 << 13;
+    /**
+     * The length and the checksum of a record.
+     */
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "consumer.checkpoint";
+
+    private static final class Segment {
+        final long index;
+        final Path path;
+        final MappedByteBuffer buffer;
+        /**
+         * A view of the buffer whose position and limit select the bytes to
+         * checksum.
+         */
+        final ByteBuffer view;
+
+        Segment(long index, Path path, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+            this.view = buffer.duplicate();
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+
+    private final Path directory;
+    private final Codec<E> codec;
+    private final int segmentBytes;
+    private final int forceInterval;
+    private final CRC32C crc = new CRC32C();
+    private final MappedByteBuffer checkpoint;
+    /**
+     * The segments from the one being read to the one being written.
+     */
+    private final ArrayList<Segment> segments = new ArrayList<>();
+    /**
+     * The consumed segments to delete on the next checkpoint.
+     */
+    private final ArrayList<Segment> retired = new ArrayList<>();
+    private int readOffset;
+    private int writeOffset;
+    private int forcedOffset;
+    private int size;
+    private int unforced;
+    private boolean closed;
+
+    /**
+     * Create or open a {@link MappedQueue} in the specified directory with
+     * segments of 64 MiB, forcing written records to disk every 8192
+     * operations.
+     *
+     * @param directory the directory of the segment files
+     * @param codec     the codec used to encode elements
+     * @throws IOException if the directory cannot be read or written
+     */
+    public MappedQueue(Path directory, Codec<E> codec) throws IOException {
+        this(directory, codec, DEFAULT_SEGMENT_BYTES, DEFAULT_FORCE_INTERVAL);
+    }
+
+    /**
+     * Create or open a {@link MappedQueue} in the specified directory.
+     *
+     * @param directory     the directory of the segment files
+     * @param codec         the codec used to encode elements
+     * @param segmentBytes  the size of a segment file in bytes
+     * @param forceInterval the number of enqueued or dequeued elements after
+     *                      which written records are forced to disk
+     * @throws IOException if the directory cannot be read or written
+     */
+    public MappedQueue(Path directory, Codec<E> codec, int segmentBytes, int forceInterval) throws IOException {
+        if (segmentBytes <= HEADER || forceInterval <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.directory = Files.createDirectories(directory);
+        this.codec = codec;
+        this.segmentBytes = segmentBytes;
+        this.forceInterval = forceInterval;
+        try (FileChannel channel = FileChannel.open(directory.resolve(CHECKPOINT), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            checkpoint = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2 * Long.BYTES);
+        }
+        recover();
+    }
+
+    @Override
+    public void enqueue(E element) {
+        checkOpen();
+        Objects.requireNonNull(element);
+        int length = codec.size(element);
+        if (length <= 0 || length > segmentBytes - HEADER) {
+            throw new IllegalArgumentException();
+        }
+        Segment segment = segments.getLast();
+        if (writeOffset + HEADER + length > segment.capacity()) {
+            segment = roll();
+        }
+        int written = codec.write(segment.buffer, writeOffset + HEADER, element);
+        segment.buffer.putInt(writeOffset + Integer.BYTES, checksum(segment, writeOffset + HEADER, written));
+        // the length is written last; a zero length marks the end of the
+        // records in a segment
+        segment.buffer.putInt(writeOffset, written);
+        writeOffset += HEADER + written;
+        size++;
+        countOperation();
+    }
+
+    @Override
+    public E dequeue() throws NoSuchElementException {
+        E element = peek();
+        readOffset += HEADER + segments.getFirst().buffer.getInt(readOffset);
+        size--;
+        countOperation();
+        return element;
+    }
+
+    @Override
+    public E peek() throws NoSuchElementException {
+        checkOpen();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        Segment segment = segments.getFirst();
+        if (!hasRecord(segment, readOffset)) {
+            // the rest of the queue starts in the next segment
+            retired.addLast(segments.removeFirst());
+            segment = segments.getFirst();
+            readOffset = 0;
+        }
+        return codec.read(segment.buffer, readOffset + HEADER);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        checkOpen();
+
+        class SegmentIterator implements Iterator<E> {
+            private int k = 0;
+            private int offset = readOffset;
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Segment segment = segments.get(k);
+                if (!hasRecord(segment, offset)) {
+                    segment = segments.get(++k);
+                    offset = 0;
+                }
+                E element = codec.read(segment.buffer, offset + HEADER);
+                offset += HEADER + segment.buffer.getInt(offset);
+                remaining--;
+                return element;
+            }
+        }
+
+        return new SegmentIterator();
+    }
+
+    /**
+     * Forces the records written so far to disk, writes the position of the
+     * consumer to the checkpoint file and deletes the segments that were
+     * consumed entirely.
+     *
+     * @throws UncheckedIOException if a consumed segment cannot be deleted
+     */
+    public void force() {
+        checkOpen();
+        if (writeOffset > forcedOffset) {
+            segments.getLast().buffer.force(forcedOffset, writeOffset - forcedOffset);
+            forcedOffset = writeOffset;
+        }
+        writeCheckpoint(segments.getFirst().index, readOffset);
+        try {
+            for (Segment segment : retired) {
+                Files.deleteIfExists(segment.path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        retired.clear();
+        unforced = 0;
+    }
+
+    /**
+     * Forces the queue to disk and closes it. The mapped segments are
+     * released when they are garbage collected.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            force();
+            closed = true;
+            segments.clear();
+        }
+    }
+
+    private void countOperation() {
+        if (++unforced >= forceInterval) {
+            force();
+        }
+    }
+
+    /**
+     * Starts a new segment after forcing the current one to disk.
+     */
+    private Segment roll() {
+        Segment last = segments.getLast();
+        last.buffer.force(forcedOffset, writeOffset - forcedOffset);
+        try {
+            segments.addLast(openSegment(last.index + 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writeOffset = 0;
+        forcedOffset = 0;
+        return segments.getLast();
+    }
+
+    /**
+     * Opens the segments from the checkpoint on and scans their records to
+     * count the elements and to find the end of the queue.
+     */
+    private void recover() throws IOException {
+        LongArrayList indices = new LongArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                indices.addLong(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        indices.sort();
+        long readIndex = indices.isEmpty() ? 0 : indices.getLong(0);
+        readOffset = 0;
+        crc.reset();
+        crc.update(checkpoint.duplicate().limit(Long.BYTES + Integer.BYTES));
+        if ((int) crc.getValue() == checkpoint.getInt(Long.BYTES + Integer.BYTES)
+                && indices.binarySearch(checkpoint.getLong(0)) >= 0) {
+            readIndex = checkpoint.getLong(0);
+            readOffset = checkpoint.getInt(Long.BYTES);
+        }
+        for (int i = 0; i < indices.size(); i++) {
+            long index = indices.getLong(i);
+            if (index < readIndex) {
+                // consumed before the last checkpoint, but not yet deleted
+                Files.deleteIfExists(segmentPath(index));
+            } else {
+                segments.addLast(openSegment(index));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(openSegment(readIndex));
+        }
+        int k = 0;
+        int offset = readOffset;
+        while (true) {
+            Segment segment = segments.get(k);
+            if (hasRecord(segment, offset)) {
+                int end = validRecordEnd(segment, offset);
+                if (end >= 0) {
+                    size++;
+                    offset = end;
+                    continue;
+                }
+                // a torn record ends the queue
+                while (segments.size() > k + 1) {
+                    Files.deleteIfExists(segments.removeLast().path);
+                }
+                ByteBuffer zeros = ByteBuffer.allocate(Math.min(4096, segment.capacity() - offset));
+                for (int i = offset; i < segment.capacity(); i += zeros.capacity()) {
+                    segment.buffer.put(i, zeros, 0, Math.min(zeros.capacity(), segment.capacity() - i));
+                }
+                segment.buffer.force();
+                break;
+            }
+            if (k == segments.size() - 1) {
+                break;
+            }
+            k++;
+            offset = 0;
+        }
+        writeOffset = offset;
+        forcedOffset = offset;
+    }
+
+    private Segment openSegment(long index) throws IOException {
+        Path path = segmentPath(index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            long length = channel.size() > 0 ? channel.size() : segmentBytes;
+            return new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private void writeCheckpoint(long index, int offset) {
+        checkpoint.putLong(0, index);
+        checkpoint.putInt(Long.BYTES, offset);
+        crc.reset();
+        crc.update(checkpoint.duplicate().limit(Long.BYTES + Integer.BYTES));
+        checkpoint.putInt(Long.BYTES + Integer.BYTES, (int) crc.getValue());
+        checkpoint.force();
+    }
+
+    private static boolean hasRecord(Segment segment, int offset) {
+        return offset + HEADER <= segment.capacity() && segment.buffer.getInt(offset) != 0;
+    }
+
+    /**
+     * Returns the end of the record at the given offset, or {@code -1} if
+     * the record is torn.
+     */
+    private int validRecordEnd(Segment segment, int offset) {
+        int length = segment.buffer.getInt(offset);
+        if (length <= 0 || length > segment.capacity() - offset - HEADER) {
+            return -1;
+        }
+        int checksum = segment.buffer.getInt(offset + Integer.BYTES);
+        return checksum == checksum(segment, offset + HEADER, length) ? offset + HEADER + length : -1;
+    }
+
+    private int checksum(Segment segment, int from, int length) {
+        ByteBuffer view = segment.view;
+        view.clear();
+        view.position(from);
+        view.limit(from + length);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package util.collections;
+
+/**
+ * Receives the counters of instrumented collections from
+ * {@link Instrumentation#publish}.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+    /**
+     * Accepts the counters of the collections of one type created by the same
+     * code.
+     *
+     * @param metrics the counters
+     */
+    void accept(CollectionMetrics metrics);
+}
@@ -0,0 +1,255 @@
+package util.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Holds the producer position, padded away from the fields of the enclosing
+ * object header.
+ */
+abstract class MpmcArrayQueueProducerFields {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * The next position to be claimed by a producer.
+     */
+    volatile long producerIndex;
+}
+
+/**
+ * Keeps the producer and consumer positions on separate cache lines.
+ */
+abstract class MpmcArrayQueueConsumerFields extends MpmcArrayQueueProducerFields {
+    long p16, p17, p18, p19, p20, p21, p22, p23;
+    long p24, p25, p26, p27, p28, p29, p30, p31;
+
+    /**
+     * The next position to be claimed by a consumer.
+     */
+    volatile long consumerIndex;
+}
+
+/**
+ * Keeps the consumer position away from the fields of the queue itself.
+ */
+abstract class MpmcArrayQueuePadding extends MpmcArrayQueueConsumerFields {
+    long p32, p33, p34, p35, p36, p37, p38, p39;
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+}
+
+/**
+ * A bounded, lock-free queue for any number of producer and consumer threads.
+ * <p>
+ * This is Dmitry Vyukov's array queue: every slot of the power-of-two ring
+ * buffer carries a sequence number that tells producers and consumers whether
+ * the slot is ready for them. A thread claims a position with a single
+ * compare-and-set on the shared producer or consumer index and then hands the
+ * slot over by publishing the next sequence number, so threads working on
+ * different slots never wait for each other. No operation allocates.
+ * </p>
+ * <p>
+ * {@link #size()}, {@link #peek()} and {@link #iterator()} are only estimates
+ * while other threads modify the queue.
+ * </p>
+ * <p>
+ * This queue does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in this queue
+ */
+public final class MpmcArrayQueue<E> extends MpmcArrayQueuePadding implements Queue<E> {
+    private static final VarHandle PRODUCER_INDEX;
+    private static final VarHandle CONSUMER_INDEX;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(MpmcArrayQueueProducerFields.class, "producerIndex", long.class);
+            CONSUMER_INDEX = lookup.findVarHandle(MpmcArrayQueueConsumerFields.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] buffer;
+    private final long[] sequences;
+    private final int mask;
+
+    /**
+     * Constructs an empty queue with the specified capacity, rounded up to a
+     * power of two of at least 2.
+     *
+     * @param capacity the capacity
+     */
+    @SuppressWarnings("unchecked")
+    public MpmcArrayQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException();
+        }
+        int length = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = (E[]) new Object[length];
+        sequences = new long[length];
+        for (int i = 0; i < length; i++) {
+            sequences[i] = i;
+        }
+        mask = length - 1;
+    }
+
+    /**
+     * Adds an element to the end of this queue if there is room.
+     *
+     * @param element the element to add
+     * @return {@code true} if the element was added, {@code false} if this
+     *         queue is full
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long index = producerIndex;
+        while (true) {
+            int slot = (int) index & mask;
+            long difference = (long) SEQUENCE.getAcquire(sequences, slot) - index;
+            if (difference == 0) {
+                if (PRODUCER_INDEX.compareAndSet(this, index, index + 1)) {
+                    buffer[slot] = element;
+                    SEQUENCE.setRelease(sequences, slot, index + 1);
+                    return true;
+                }
+                index = producerIndex;
+            } else if (difference < 0) {
+                // the slot still holds the element from the previous lap
+                return false;
+            } else {
+                index = producerIndex;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the first element of this queue, if there is one.
+     *
+     * @return the first element of this queue, or {@code null} if this queue
+     *         is empty
+     */
+    public E poll() {
+        long index = consumerIndex;
+        while (true) {
+            int slot = (int) index & mask;
+            long difference = (long) SEQUENCE.getAcquire(sequences, slot) - (index + 1);
+            if (difference == 0) {
+                if (CONSUMER_INDEX.compareAndSet(this, index, index + 1)) {
+                    E element = buffer[slot];
+                    buffer[slot] = null;
+                    SEQUENCE.setRelease(sequences, slot, index + buffer.length);
+                    return element;
+                }
+                index = consumerIndex;
+            } else if (difference < 0) {
+                // the slot has not been filled for this lap yet
+                return null;
+            } else {
+                index = consumerIndex;
+            }
+        }
+    }
+
+    @Override
+    public void enqueue(E element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full");
+        }
+    }
+
+    @Override
+    public E dequeue() throws NoSuchElementException {
+        E element = poll();
+        if (element == null) {
+            throw new NoSuchElementException();
+        }
+        return element;
+    }
+
+    @Override
+    public E peek() throws NoSuchElementException {
+        while (true) {
+            long index = consumerIndex;
+            int slot = (int) index & mask;
+            if ((long) SEQUENCE.getAcquire(sequences, slot) != index + 1) {
+                if (index == consumerIndex) {
+                    throw new NoSuchElementException();
+                }
+                continue;
+            }
+            E element = buffer[slot];
+            if (element != null && index == consumerIndex) {
+                return element;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        while (true) {
+            long consumer = consumerIndex;
+            long producer = producerIndex;
+            if (consumer == consumerIndex) {
+                return (int) Math.max(0, Math.min(buffer.length, producer - consumer));
+            }
+        }
+    }
+
+    @Override
+    public int maxCapacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class QueueIterator implements Iterator<E> {
+            private long index = consumerIndex;
+            private final long end = producerIndex;
+            private E next = advance();
+
+            private E advance() {
+                while (index < end) {
+                    int slot = (int) index & mask;
+                    long sequence = (long) SEQUENCE.getAcquire(sequences, slot);
+                    E element = buffer[slot];
+                    if (sequence == index + 1 && element != null) {
+                        index++;
+                        return element;
+                    }
+                    if (sequence < index + 1) {
+                        // not yet published
+                        break;
+                    }
+                    // already consumed
+                    index++;
+                }
+                index = end;
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E element = next;
+                next = advance();
+                return element;
+            }
+        }
+
+        return new QueueIterator();
+    }
+}
@@ -0,0 +1,243 @@
+package util.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An implementation of the {@link List} interface backed by off-heap memory.
+ * <p>
+ * Elements are encoded by a {@link FixedWidthCodec} into direct
+ * {@link ByteBuffer} chunks of about 1 MiB, so the elements themselves never
+ * live on the Java heap and do not add to garbage collection work. Growing
+ * the list allocates new chunks without copying existing ones, and the total
+ * size is not limited by the 2 GiB limit of a single buffer.
+ * </p>
+ * <p>
+ * Like {@link ArrayList}, an off-heap list provides constant time random
+ * access; elements are decoded on every access.
+ * </p>
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class OffHeapList<E> extends AbstractList<E> implements List<E>, DynamicArray {
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final FixedWidthCodec<E> codec;
+    private final int width;
+    private final int chunkShift;
+    private final int chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int size;
+    private GrowthPolicy growthPolicy = GrowthPolicy.fixedIncrement(1);
+
+    /**
+     * Create an {@link OffHeapList} with the specified codec and initial
+     * capacity.
+     *
+     * @param codec           the codec used to encode elements
+     * @param initialCapacity the initial capacity
+     */
+    public OffHeapList(FixedWidthCodec<E> codec, int initialCapacity) {
+        if (initialCapacity <= 0 || codec.width() <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        this.chunkShift = 31 - Integer.numberOfLeadingZeros(Math.max(1, CHUNK_BYTES / width));
+        this.chunkMask = (1 << chunkShift) - 1;
+        ensureCapacity(initialCapacity);
+    }
+
+    /**
+     * Create an {@link OffHeapList} with the specified codec and the default
+     * initial capacity of 10.
+     *
+     * @param codec the codec used to encode elements
+     */
+    public OffHeapList(FixedWidthCodec<E> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an {@link OffHeapList} with the specified codec and elements.
+     *
+     * @param codec    the codec used to encode elements
+     * @param iterable the elements
+     */
+    public OffHeapList(FixedWidthCodec<E> codec, Iterable<E> iterable) {
+        this(codec, iterable instanceof ReadOnlyCollection<E> collection
+                ? Math.max(collection.size(), 1)
+                : DEFAULT_CAPACITY);
+        for (E element : iterable) {
+            addLast(element);
+        }
+    }
+
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return codec.read(chunks[index >>> chunkShift], (index & chunkMask) * width);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        Objects.requireNonNull(element);
+        ByteBuffer chunk = chunks[index >>> chunkShift];
+        int offset = (index & chunkMask) * width;
+        E old = codec.read(chunk, offset);
+        codec.write(chunk, offset, element);
+        return old;
+    }
+
+    @Override
+    public void addLast(E element) {
+        Objects.requireNonNull(element);
+        ensureCapacity(size + 1);
+        codec.write(chunks[size >>> chunkShift], (size & chunkMask) * width, element);
+        size++;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        Objects.requireNonNull(element);
+        ensureCapacity(size + 1);
+        move(index, index + 1, size - index);
+        codec.write(chunks[index >>> chunkShift], (index & chunkMask) * width, element);
+        size++;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        E old = get(index);
+        move(index + 1, index, size - index - 1);
+        size--;
+        shrinkIfSparse();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        shrinkIfSparse();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ensures that the list has at least the given capacity, rounded up to
+     * whole chunks.
+     *
+     * @param minCapacity the minimum capacity
+     */
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        int capacity = getCapacity();
+        if (minCapacity > capacity) {
+            int chunkCount = chunksFor(Math.max(minCapacity, growthPolicy.grow(capacity, minCapacity)));
+            int oldCount = chunks.length;
+            chunks = Arrays.copyOf(chunks, chunkCount);
+            for (int i = oldCount; i < chunkCount; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(width << chunkShift).order(ByteOrder.nativeOrder());
+            }
+        }
+    }
+
+    /**
+     * Releases the chunks that hold no elements.
+     */
+    @Override
+    public void trimToSize() {
+        releaseChunks(chunksFor(size));
+    }
+
+    /**
+     * Returns the policy deciding how the list grows and shrinks. The
+     * capacities it returns are rounded up to whole chunks; the default
+     * policy allocates one chunk at a time.
+     *
+     * @return the growth policy
+     */
+    @Override
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    @Override
+    public void setGrowthPolicy(GrowthPolicy policy) {
+        growthPolicy = Objects.requireNonNull(policy);
+    }
+
+    private void shrinkIfSparse() {
+        releaseChunks(chunksFor(Math.max(growthPolicy.shrink(getCapacity(), size), size)));
+    }
+
+    private void releaseChunks(int chunkCount) {
+        if (chunkCount < chunks.length) {
+            // the direct buffers are freed once they are garbage collected
+            chunks = Arrays.copyOf(chunks, chunkCount);
+        }
+    }
+
+    private int chunksFor(int capacity) {
+        return (int) (((long) capacity + chunkMask) >>> chunkShift);
+    }
+
+    /**
+     * Returns the current capacity of this list.
+     *
+     * @return the current capacity
+     */
+    @Override
+    public int getCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) chunks.length << chunkShift);
+    }
+
+    /**
+     * Moves {@code count} elements starting at index {@code from} so they
+     * start at index {@code to}, copying whole runs of bytes between chunks.
+     */
+    private void move(int from, int to, int count) {
+        if (from < to) {
+            // copy from the back so overlapping elements are read before
+            // they are overwritten
+            while (count > 0) {
+                int srcLast = from + count - 1;
+                int dstLast = to + count - 1;
+                int run = Math.min(count, Math.min((srcLast & chunkMask) + 1, (dstLast & chunkMask) + 1));
+                copy(srcLast - run + 1, dstLast - run + 1, run);
+                count -= run;
+            }
+        } else if (from > to) {
+            while (count > 0) {
+                int run = Math.min(count,
+                        Math.min(chunkMask + 1 - (from & chunkMask), chunkMask + 1 - (to & chunkMask)));
+                copy(from, to, run);
+                from += run;
+                to += run;
+                count -= run;
+            }
+        }
+    }
+
+    private void copy(int from, int to, int count) {
+        chunks[to >>> chunkShift].put((to & chunkMask) * width, chunks[from >>> chunkShift],
+                (from & chunkMask) * width, count * width);
+    }
+}
@@ -0,0 +1,578 @@
+package util.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable map.
+ * <p>
+ * A persistent map is a compressed hash-array mapped trie (CHAMP): every
+ * node covers five bits of the hash of its keys and stores its entries and
+ * its child nodes in one compact array, indexed by two 32-bit bitmaps.
+ * {@link #with} and {@link #without} copy only the path to the changed entry
+ * and share the rest of the trie with this map, so they take O(log32 n) time
+ * and space. Removing entries keeps the trie in its canonical, most compact
+ * form.
+ * </p>
+ * <p>
+ * A {@link Builder} changes the nodes it created itself in place, so a batch
+ * of changes allocates each copied node only once.
+ * </p>
+ * <p>
+ * This map does not permit {@code null} keys.
+ * </p>
+ *
+ * @param <K> the type of keys in the map
+ * @param <V> the type of values in the map
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    /**
+     * The depth of the deepest bitmap node; keys whose hashes are equal below
+     * it are kept in a collision node.
+     */
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS;
+    private static final Object[] EMPTY_CONTENT = new Object[0];
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(new Node(null, 0, 0, EMPTY_CONTENT), 0);
+
+    /**
+     * A node of the trie. The entries are stored as key-value pairs from the
+     * start of the content, the child nodes in reverse order from its end.
+     * A collision node stores only entries whose keys have the same hash.
+     */
+    private static class Node {
+        /**
+         * The builder that may change this node in place, or {@code null}.
+         */
+        final Object owner;
+        int dataMap;
+        int nodeMap;
+        Object[] content;
+
+        Node(Object owner, int dataMap, int nodeMap, Object[] content) {
+            this.owner = owner;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        int entryCount() {
+            return Integer.bitCount(dataMap);
+        }
+
+        Node nodeAt(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+
+        /**
+         * Returns whether this node holds a single entry and no child nodes,
+         * so its entry can move up into the parent.
+         */
+        boolean isSingleEntry() {
+            return nodeMap == 0 && entryCount() == 1;
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        CollisionNode(Object owner, Object[] content) {
+            super(owner, 0, 0, content);
+        }
+
+        @Override
+        int entryCount() {
+            return content.length >>> 1;
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return content.length == 2;
+        }
+    }
+
+    /**
+     * The outcome of a change to the trie.
+     */
+    private static final class Change {
+        boolean added;
+        boolean removed;
+    }
+
+    /**
+     * Create an empty {@link PersistentMap}.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return an empty {@link PersistentMap}
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> of() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Create a new {@link Builder} for building a {@link PersistentMap}
+     * incrementally.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a new, empty {@link Builder}
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(of());
+    }
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    private PersistentMap(PersistentMap<K, V> other) {
+        this(other.root, other.size);
+    }
+
+    /**
+     * Create a new {@link PersistentMap} with the given entries.
+     *
+     * @param entries the entries
+     */
+    public PersistentMap(Iterable<? extends Entry<? extends K, ? extends V>> entries) {
+        this(new Builder<K, V>(of()).putAll(entries).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(K key) throws NoSuchElementException {
+        Object value = find(root, key, HashMap.hash(key));
+        if (value == NOT_FOUND) {
+            throw new NoSuchElementException();
+        }
+        return (V) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Object value = find(root, key, HashMap.hash(key));
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(root, key, HashMap.hash(key)) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a new map with the given key mapped to the given value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new map, or this map if the key is already mapped to the
+     *         value
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key);
+        Change change = new Change();
+        Node newRoot = put(root, null, key, value, HashMap.hash(key), 0, change);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, change.added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a new map without the mapping for the given key.
+     *
+     * @param key the key
+     * @return the new map, or this map if the key is not mapped
+     */
+    public PersistentMap<K, V> without(K key) {
+        Change change = new Change();
+        Node newRoot = remove(root, null, key, HashMap.hash(key), 0, change);
+        return change.removed ? new PersistentMap<>(newRoot, size - 1) : this;
+    }
+
+    /**
+     * Returns a new {@link Builder} starting with the entries of this map.
+     * This map is not affected by changes to the builder.
+     *
+     * @return a new {@link Builder}
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        class TrieIterator implements Iterator<Entry<K, V>> {
+            private final Node[] nodes = new Node[MAX_DEPTH + 1];
+            private final int[] entryIndices = new int[MAX_DEPTH + 1];
+            private final int[] nodeIndices = new int[MAX_DEPTH + 1];
+            private int depth = 0;
+            private int remaining = size;
+
+            TrieIterator() {
+                nodes[0] = root;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                while (true) {
+                    Node node = nodes[depth];
+                    int i = entryIndices[depth];
+                    if (i < node.entryCount()) {
+                        entryIndices[depth]++;
+                        remaining--;
+                        return new Entry<>((K) node.content[2 * i], (V) node.content[2 * i + 1]);
+                    }
+                    int j = nodeIndices[depth];
+                    if (j < Integer.bitCount(node.nodeMap)) {
+                        nodeIndices[depth]++;
+                        depth++;
+                        nodes[depth] = node.nodeAt(j);
+                        entryIndices[depth] = 0;
+                        nodeIndices[depth] = 0;
+                    } else {
+                        depth--;
+                    }
+                }
+            }
+        }
+
+        return new TrieIterator();
+    }
+
+    /**
+     * A builder for {@link PersistentMap}s.
+     * <p>
+     * The builder starts from the trie of a map and copies each node the
+     * first time it changes it; later changes to the same node are made in
+     * place. The builder may be reused after building; maps that were
+     * already built are not affected.
+     * </p>
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    public static final class Builder<K, V> {
+        private Object owner = new Object();
+        private Node root;
+        private int size;
+
+        private Builder(PersistentMap<K, V> map) {
+            this.root = map.root;
+            this.size = map.size;
+        }
+
+        /**
+         * Maps the given key to the given value.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return this builder
+         */
+        public Builder<K, V> put(K key, V value) {
+            Objects.requireNonNull(key);
+            Change change = new Change();
+            root = PersistentMap.put(root, owner, key, value, HashMap.hash(key), 0, change);
+            if (change.added) {
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * Maps the keys of all given entries to their values.
+         *
+         * @param entries the entries to put
+         * @return this builder
+         */
+        public Builder<K, V> putAll(Iterable<? extends Entry<? extends K, ? extends V>> entries) {
+            for (Entry<? extends K, ? extends V> entry : entries) {
+                put(entry.getKey(), entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * Removes the mapping for the given key.
+         *
+         * @param key the key
+         * @return this builder
+         */
+        public Builder<K, V> remove(K key) {
+            Change change = new Change();
+            root = PersistentMap.remove(root, owner, key, HashMap.hash(key), 0, change);
+            if (change.removed) {
+                size--;
+            }
+            return this;
+        }
+
+        /**
+         * Returns whether the given key is mapped.
+         *
+         * @param key the key
+         * @return {@code true} if the key is mapped, {@code false} otherwise
+         */
+        public boolean containsKey(K key) {
+            return find(root, key, HashMap.hash(key)) != NOT_FOUND;
+        }
+
+        /**
+         * Returns the number of entries in this builder.
+         *
+         * @return the number of entries in this builder
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns a {@link PersistentMap} containing the entries added so far.
+         *
+         * @return a new {@link PersistentMap}
+         */
+        public PersistentMap<K, V> build() {
+            // nodes shared with the built map must not change any more
+            owner = new Object();
+            return size == 0 ? of() : new PersistentMap<>(root, size);
+        }
+    }
+
+    private static Object find(Node node, Object key, int hash) {
+        for (int shift = 0;; shift += BITS) {
+            if (node instanceof CollisionNode) {
+                Object[] content = node.content;
+                for (int i = 0; i < content.length; i += 2) {
+                    if (content[i].equals(key)) {
+                        return content[i + 1];
+                    }
+                }
+                return NOT_FOUND;
+            }
+            int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                int i = index(node.dataMap, bit);
+                return node.content[2 * i].equals(key) ? node.content[2 * i + 1] : NOT_FOUND;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            node = node.nodeAt(index(node.nodeMap, bit));
+        }
+    }
+
+    private static Node put(Node node, Object owner, Object key, Object value, int hash, int shift,
+            Change change) {
+        if (node instanceof CollisionNode) {
+            Object[] content = node.content;
+            for (int i = 0; i < content.length; i += 2) {
+                if (content[i].equals(key)) {
+                    if (content[i + 1] == value) {
+                        return node;
+                    }
+                    return edit(node, owner, 0, 0, replace(node, owner, i + 1, value));
+                }
+            }
+            Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, content.length);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            change.added = true;
+            return edit(node, owner, 0, 0, newContent);
+        }
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            Object currentKey = node.content[2 * i];
+            if (currentKey.equals(key)) {
+                if (node.content[2 * i + 1] == value) {
+                    return node;
+                }
+                return edit(node, owner, node.dataMap, node.nodeMap, replace(node, owner, 2 * i + 1, value));
+            }
+            // push both entries down into a new child node
+            Node child = merge(owner, currentKey, node.content[2 * i + 1], HashMap.hash(currentKey), key, value,
+                    hash, shift + BITS);
+            change.added = true;
+            return edit(node, owner, node.dataMap ^ bit, node.nodeMap | bit, entryToNode(node, bit, i, child));
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int j = index(node.nodeMap, bit);
+            Node child = node.nodeAt(j);
+            Node newChild = put(child, owner, key, value, hash, shift + BITS, change);
+            if (newChild == child) {
+                return node;
+            }
+            return edit(node, owner, node.dataMap, node.nodeMap,
+                    replace(node, owner, node.content.length - 1 - j, newChild));
+        }
+        change.added = true;
+        int i = index(node.dataMap, bit);
+        Object[] content = node.content;
+        Object[] newContent = new Object[content.length + 2];
+        System.arraycopy(content, 0, newContent, 0, 2 * i);
+        newContent[2 * i] = key;
+        newContent[2 * i + 1] = value;
+        System.arraycopy(content, 2 * i, newContent, 2 * i + 2, content.length - 2 * i);
+        return edit(node, owner, node.dataMap | bit, node.nodeMap, newContent);
+    }
+
+    private static Node remove(Node node, Object owner, Object key, int hash, int shift, Change change) {
+        if (node instanceof CollisionNode) {
+            Object[] content = node.content;
+            for (int i = 0; i < content.length; i += 2) {
+                if (content[i].equals(key)) {
+                    change.removed = true;
+                    Object[] newContent = new Object[content.length - 2];
+                    System.arraycopy(content, 0, newContent, 0, i);
+                    System.arraycopy(content, i + 2, newContent, i, content.length - i - 2);
+                    return edit(node, owner, 0, 0, newContent);
+                }
+            }
+            return node;
+        }
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            if (!node.content[2 * i].equals(key)) {
+                return node;
+            }
+            change.removed = true;
+            Object[] content = node.content;
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, 2 * i);
+            System.arraycopy(content, 2 * i + 2, newContent, 2 * i, content.length - 2 * i - 2);
+            return edit(node, owner, node.dataMap ^ bit, node.nodeMap, newContent);
+        }
+        if ((node.nodeMap & bit) == 0) {
+            return node;
+        }
+        int j = index(node.nodeMap, bit);
+        Node child = node.nodeAt(j);
+        Node newChild = remove(child, owner, key, hash, shift + BITS, change);
+        if (!change.removed) {
+            return node;
+        }
+        if (newChild.isSingleEntry()) {
+            if (shift > 0 && node.dataMap == 0 && Integer.bitCount(node.nodeMap) == 1) {
+                // this node would only hold the single entry, so the entry
+                // moves further up
+                return newChild;
+            }
+            return edit(node, owner, node.dataMap | bit, node.nodeMap ^ bit, nodeToEntry(node, bit, j, newChild));
+        }
+        if (newChild == child) {
+            return node;
+        }
+        return edit(node, owner, node.dataMap, node.nodeMap,
+                replace(node, owner, node.content.length - 1 - j, newChild));
+    }
+
+    /**
+     * Returns a node holding the two given entries, nested as deep as their
+     * hashes share bits.
+     */
+    private static Node merge(Object owner, Object key0, Object value0, int hash0, Object key1, Object value1,
+            int hash1, int shift) {
+        if (shift >= MAX_DEPTH * BITS) {
+            return new CollisionNode(owner, new Object[] { key0, value0, key1, value1 });
+        }
+        int mask0 = (hash0 >>> shift) & MASK;
+        int mask1 = (hash1 >>> shift) & MASK;
+        if (mask0 != mask1) {
+            Object[] content = mask0 < mask1
+                    ? new Object[] { key0, value0, key1, value1 }
+                    : new Object[] { key1, value1, key0, value0 };
+            return new Node(owner, (1 << mask0) | (1 << mask1), 0, content);
+        }
+        Node child = merge(owner, key0, value0, hash0, key1, value1, hash1, shift + BITS);
+        return new Node(owner, 0, 1 << mask0, new Object[] { child });
+    }
+
+    /**
+     * Returns the content of the node with the entry at index {@code i}
+     * replaced by the given child node.
+     */
+    private static Object[] entryToNode(Node node, int bit, int i, Node child) {
+        Object[] content = node.content;
+        int j = index(node.nodeMap, bit);
+        Object[] newContent = new Object[content.length - 1];
+        // the child goes where it belongs among the reversed child nodes
+        int target = content.length - 2 - j;
+        System.arraycopy(content, 0, newContent, 0, 2 * i);
+        System.arraycopy(content, 2 * i + 2, newContent, 2 * i, target - 2 * i);
+        newContent[target] = child;
+        System.arraycopy(content, target + 2, newContent, target + 1, content.length - target - 2);
+        return newContent;
+    }
+
+    /**
+     * Returns the content of the node with the child node at index
+     * {@code j} replaced by the single entry of the given child.
+     */
+    private static Object[] nodeToEntry(Node node, int bit, int j, Node child) {
+        Object[] content = node.content;
+        int i = index(node.dataMap, bit);
+        Object[] newContent = new Object[content.length + 1];
+        int source = content.length - 1 - j;
+        System.arraycopy(content, 0, newContent, 0, 2 * i);
+        newContent[2 * i] = child.content[0];
+        newContent[2 * i + 1] = child.content[1];
+        System.arraycopy(content, 2 * i, newContent, 2 * i + 2, source - 2 * i);
+        System.arraycopy(content, source + 1, newContent, source + 2, content.length - source - 1);
+        return newContent;
+    }
+
+    /**
+     * Returns the content of the node with the slot at the given index set to
+     * the given value, changing it in place if the node belongs to the owner.
+     */
+    private static Object[] replace(Node node, Object owner, int index, Object value) {
+        Object[] content = owner != null && node.owner == owner ? node.content : node.content.clone();
+        content[index] = value;
+        return content;
+    }
+
+    /**
+     * Returns the node with the given bitmaps and content, changing the node
+     * in place if it belongs to the owner.
+     */
+    private static Node edit(Node node, Object owner, int dataMap, int nodeMap, Object[] content) {
+        if (owner != null && node.owner == owner) {
+            node.dataMap = dataMap;
+            node.nodeMap = nodeMap;
+            node.content = content;
+            return node;
+        }
+        return node instanceof CollisionNode
+                ? new CollisionNode(owner, content)
+                : new Node(owner, dataMap, nodeMap, content);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+}
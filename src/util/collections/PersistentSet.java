@@ -0,0 +1,237 @@
+package util.collections;
+
+import java.util.Iterator;
+
+/**
+ * An immutable set backed by a {@link PersistentMap}.
+ * <p>
+ * {@link #with} and {@link #without} take O(log32 n) time and space and
+ * share the rest of the trie with this set. A {@link Builder} applies a batch
+ * of changes without copying a node more than once.
+ * </p>
+ * <p>
+ * This set does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in the set
+ */
+public final class PersistentSet<E> extends AbstractSet<E> {
+    private static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.of());
+
+    private final PersistentMap<E, Boolean> map;
+
+    /**
+     * Create a new {@link PersistentSet} with the given elements.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link PersistentSet} with the given elements
+     */
+    @SafeVarargs
+    public static <E> PersistentSet<E> of(E... elements) {
+        Builder<E> builder = new Builder<>(of());
+        for (E element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create an empty {@link PersistentSet}.
+     *
+     * @param <E> the type of elements
+     * @return an empty {@link PersistentSet}
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentSet<E> of() {
+        return (PersistentSet<E>) EMPTY;
+    }
+
+    /**
+     * Create a new {@link Builder} for building a {@link PersistentSet}
+     * incrementally.
+     *
+     * @param <E> the type of elements
+     * @return a new, empty {@link Builder}
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<>(of());
+    }
+
+    private PersistentSet(PersistentMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    /**
+     * Create a new {@link PersistentSet} with the given iterable.
+     *
+     * @param iterable the iterable
+     */
+    public PersistentSet(Iterable<E> iterable) {
+        this(new Builder<E>(of()).addAll(iterable).build().map);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return map.containsKey(element);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns a new set with the given element added.
+     *
+     * @param element the element to add
+     * @return the new set, or this set if it already contains the element
+     */
+    public PersistentSet<E> with(E element) {
+        PersistentMap<E, Boolean> newMap = map.with(element, Boolean.TRUE);
+        return newMap == map ? this : new PersistentSet<>(newMap);
+    }
+
+    /**
+     * Returns a new set with the given element removed.
+     *
+     * @param element the element to remove
+     * @return the new set, or this set if it does not contain the element
+     */
+    public PersistentSet<E> without(E element) {
+        PersistentMap<E, Boolean> newMap = map.without(element);
+        return newMap == map ? this : new PersistentSet<>(newMap);
+    }
+
+    /**
+     * Returns a new {@link Builder} starting with the elements of this set.
+     * This set is not affected by changes to the builder.
+     *
+     * @return a new {@link Builder}
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    @Override
+    public boolean isSupersetOf(Iterable<? extends E> iterable) {
+        return containsAll(iterable);
+    }
+
+    @Override
+    public boolean isSubsetOf(Iterable<E> iterable) {
+        if (iterable == this || isEmpty()) {
+            return true;
+        }
+        // count the distinct elements of this set that occur in the iterable
+        Builder<E> found = new Builder<>(of());
+        for (E element : iterable) {
+            if (contains(element)) {
+                found.add(element);
+            }
+        }
+        return found.size() == size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Entry<E, Boolean>> entries = map.iterator();
+
+        class KeyIterator implements Iterator<E> {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return entries.next().getKey();
+            }
+        }
+
+        return new KeyIterator();
+    }
+
+    /**
+     * A builder for {@link PersistentSet}s.
+     * <p>
+     * The builder may be reused after building; sets that were already built
+     * are not affected.
+     * </p>
+     *
+     * @param <E> the type of elements
+     */
+    public static final class Builder<E> {
+        private final PersistentMap.Builder<E, Boolean> map;
+
+        private Builder(PersistentSet<E> set) {
+            this.map = set.map.toBuilder();
+        }
+
+        /**
+         * Adds an element to this builder.
+         *
+         * @param element the element to add
+         * @return this builder
+         */
+        public Builder<E> add(E element) {
+            map.put(element, Boolean.TRUE);
+            return this;
+        }
+
+        /**
+         * Adds all elements of the given iterable to this builder.
+         *
+         * @param iterable the elements to add
+         * @return this builder
+         */
+        public Builder<E> addAll(Iterable<? extends E> iterable) {
+            for (E element : iterable) {
+                add(element);
+            }
+            return this;
+        }
+
+        /**
+         * Removes an element from this builder.
+         *
+         * @param element the element to remove
+         * @return this builder
+         */
+        public Builder<E> remove(E element) {
+            map.remove(element);
+            return this;
+        }
+
+        /**
+         * Returns whether this builder contains the given element.
+         *
+         * @param element the element
+         * @return {@code true} if this builder contains the element,
+         *         {@code false} otherwise
+         */
+        public boolean contains(E element) {
+            return map.containsKey(element);
+        }
+
+        /**
+         * Returns the number of elements in this builder.
+         *
+         * @return the number of elements in this builder
+         */
+        public int size() {
+            return map.size();
+        }
+
+        /**
+         * Returns a {@link PersistentSet} containing the elements added so
+         * far.
+         *
+         * @return a new {@link PersistentSet}
+         */
+        public PersistentSet<E> build() {
+            PersistentMap<E, Boolean> built = map.build();
+            return built.isEmpty() ? of() : new PersistentSet<>(built);
+        }
+    }
+}
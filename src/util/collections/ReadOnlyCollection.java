@@ -1,6 +1,8 @@
 package util.collections;
 
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a read-only collection of elements.
@@ -84,4 +86,24 @@ public interface ReadOnlyCollection<E> extends Iterable<E> {
         return Integer.MAX_VALUE;
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns a sequential {@link Stream} over the elements of this collection.
+     * 
+     * @return a sequential stream over the elements of this collection
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel {@link Stream} over the elements of this collection.
+     * The elements are processed in the fork-join common pool, split as
+     * evenly as this collection's {@link #spliterator()} allows.
+     * 
+     * @return a parallel stream over the elements of this collection
+     */
+    default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+}
@@ -1,7 +1,10 @@
 package util.collections;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * Represents a read-only list, also known as a sequence, of elements.
@@ -79,4 +82,45 @@ public interface ReadOnlyList<E> extends ReadOnlyDeque<E> {
 
         return new ListIterator();
     }
+
+    /**
+     * Returns an ordered, sized {@link Spliterator} over the elements of this
+     * list.
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Searches this list, which must be sorted by the specified comparator,
+     * for the specified key using binary search.
+     * 
+     * @param key        the element to search for
+     * @param comparator the comparator by which this list is sorted, or
+     *                   {@code null} if it is sorted by the natural ordering
+     *                   of its elements
+     * @return the index of the key, or {@code -(insertion point) - 1} if this
+     *         list does not contain it
+     */
+    @SuppressWarnings("unchecked")
+    default int binarySearch(E key, Comparator<? super E> comparator) {
+        if (comparator == null) {
+            comparator = (Comparator<? super E>) Comparator.naturalOrder();
+        }
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparator.compare(get(middle), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
 }
\ No newline at end of file
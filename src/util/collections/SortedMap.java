@@ -0,0 +1,74 @@
+package util.collections;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents a map whose entries are ordered by their keys.
+ *
+ * @param <K> the type of keys in this map
+ * @param <V> the type of values in this map
+ */
+public interface SortedMap<K, V> extends Map<K, V> {
+    /**
+     * Returns the comparator that orders the keys of this map.
+     *
+     * @return the comparator of this map
+     */
+    Comparator<? super K> comparator();
+
+    /**
+     * Returns the entry with the smallest key in this map.
+     *
+     * @return the first entry of this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    Entry<K, V> first() throws NoSuchElementException;
+
+    /**
+     * Returns the entry with the largest key in this map.
+     *
+     * @return the last entry of this map
+     * @throws NoSuchElementException if this map is empty
+     */
+    Entry<K, V> last() throws NoSuchElementException;
+
+    /**
+     * Returns the entry with the largest key less than or equal to the given
+     * key.
+     *
+     * @param key the key
+     * @return the matching entry, or {@code null} if there is none
+     */
+    Entry<K, V> floor(K key);
+
+    /**
+     * Returns the entry with the smallest key greater than or equal to the
+     * given key.
+     *
+     * @param key the key
+     * @return the matching entry, or {@code null} if there is none
+     */
+    Entry<K, V> ceiling(K key);
+
+    /**
+     * Returns a view of the entries of this map whose keys range from
+     * {@code fromKey}, inclusive, to {@code toKey}, exclusive. Changes to the
+     * view are reflected in this map and vice versa.
+     *
+     * @param fromKey the smallest key of the view
+     * @param toKey   the key after the largest key of the view
+     * @return a view of the given range of this map
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *                                  {@code toKey}
+     */
+    SortedMap<K, V> subMap(K fromKey, K toKey) throws IllegalArgumentException;
+
+    /**
+     * Performs the given action for each entry of this map in key order.
+     *
+     * @param action the action to perform on each key and value
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+}
@@ -0,0 +1,65 @@
+package util.collections;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a set whose elements are ordered.
+ *
+ * @param <E> the type of elements in this set
+ */
+public interface SortedSet<E> extends Set<E> {
+    /**
+     * Returns the comparator that orders the elements of this set.
+     *
+     * @return the comparator of this set
+     */
+    Comparator<? super E> comparator();
+
+    /**
+     * Returns the smallest element of this set.
+     *
+     * @return the first element of this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    E first() throws NoSuchElementException;
+
+    /**
+     * Returns the largest element of this set.
+     *
+     * @return the last element of this set
+     * @throws NoSuchElementException if this set is empty
+     */
+    E last() throws NoSuchElementException;
+
+    /**
+     * Returns the largest element of this set less than or equal to the given
+     * element.
+     *
+     * @param element the element
+     * @return the matching element, or {@code null} if there is none
+     */
+    E floor(E element);
+
+    /**
+     * Returns the smallest element of this set greater than or equal to the
+     * given element.
+     *
+     * @param element the element
+     * @return the matching element, or {@code null} if there is none
+     */
+    E ceiling(E element);
+
+    /**
+     * Returns a view of the elements of this set ranging from
+     * {@code fromElement}, inclusive, to {@code toElement}, exclusive. Changes
+     * to the view are reflected in this set and vice versa.
+     *
+     * @param fromElement the smallest element of the view
+     * @param toElement   the element after the largest element of the view
+     * @return a view of the given range of this set
+     * @throws IllegalArgumentException if {@code fromElement} is greater than
+     *                                  {@code toElement}
+     */
+    SortedSet<E> subSet(E fromElement, E toElement) throws IllegalArgumentException;
+}
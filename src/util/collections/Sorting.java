@@ -0,0 +1,550 @@
+package util.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting algorithms shared by the array-backed lists.
+ * <p>
+ * Object arrays are sorted by a stable, natural merge sort in the style of
+ * TimSort: ascending and descending runs already present in the input are
+ * detected and extended with binary insertion sort, and runs are merged
+ * while keeping the run lengths balanced, so partially sorted input takes
+ * close to linear time. The parallel variant splits the array across the
+ * fork-join common pool and merges the sorted halves in parallel.
+ * </p>
+ * <p>
+ * Large primitive arrays are sorted by least significant digit radix sort,
+ * one byte per pass, skipping passes in which all keys share the digit.
+ * </p>
+ */
+final class Sorting {
+    private static final int MIN_MERGE = 32;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int RADIX_THRESHOLD = 1 << 10;
+
+    private Sorting() {
+    }
+
+    /**
+     * Stably sorts the range {@code [from, to)} of the array.
+     */
+    static <E> void sort(Object[] a, int from, int to, Comparator<? super E> comparator) {
+        new MergeState<E>(a, comparator).sort(from, to);
+    }
+
+    /**
+     * Stably sorts the range {@code [from, to)} of the array using the
+     * fork-join common pool.
+     */
+    static <E> void parallelSort(Object[] a, int from, int to, Comparator<? super E> comparator) {
+        if (to - from <= PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            sort(a, from, to, comparator);
+            return;
+        }
+        Object[] buffer = new Object[to - from];
+        new SortTask<E>(a, buffer, from, to, from, comparator).invoke();
+    }
+
+    /**
+     * Returns the index of the key in the sorted range {@code [from, to)}, or
+     * {@code -(insertion point) - 1} if it is not present.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> int binarySearch(Object[] a, int from, int to, E key, Comparator<? super E> comparator) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparator.compare((E) a[middle], key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * The run stack and merge buffer of one sort.
+     */
+    private static final class MergeState<E> {
+        private final Object[] a;
+        private final Comparator<? super E> comparator;
+        private Object[] buffer = new Object[0];
+        private final int[] runBase = new int[49];
+        private final int[] runLength = new int[49];
+        private int runCount;
+
+        MergeState(Object[] a, Comparator<? super E> comparator) {
+            this.a = a;
+            this.comparator = comparator;
+        }
+
+        void sort(int from, int to) {
+            int remaining = to - from;
+            if (remaining < 2) {
+                return;
+            }
+            if (remaining < MIN_MERGE) {
+                int run = countRunAndMakeAscending(from, to);
+                insertionSort(from, to, from + run);
+                return;
+            }
+            int minRun = minRunLength(remaining);
+            int low = from;
+            do {
+                int run = countRunAndMakeAscending(low, to);
+                if (run < minRun) {
+                    int forced = Math.min(remaining, minRun);
+                    insertionSort(low, low + forced, low + run);
+                    run = forced;
+                }
+                runBase[runCount] = low;
+                runLength[runCount++] = run;
+                mergeCollapse();
+                low += run;
+                remaining -= run;
+            } while (remaining != 0);
+            while (runCount > 1) {
+                int n = runCount - 2;
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges runs until the lengths on the stack shrink faster than the
+         * Fibonacci numbers, which bounds the stack depth and keeps merges
+         * balanced.
+         */
+        private void mergeCollapse() {
+            while (runCount > 1) {
+                int n = runCount - 2;
+                if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                        || n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1]) {
+                    if (runLength[n - 1] < runLength[n + 1]) {
+                        n--;
+                    }
+                } else if (runLength[n] > runLength[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+            runLength[i] = length1 + length2;
+            if (i == runCount - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }
+            runCount--;
+
+            // elements of the first run that precede the second run are
+            // already in place, and so are elements of the second run that
+            // follow the first run
+            int skip = upperBound(a, base1, base1 + length1, element(base2));
+            length1 -= skip - base1;
+            base1 = skip;
+            if (length1 == 0) {
+                return;
+            }
+            length2 = lowerBound(a, base2, base2 + length2, element(base1 + length1 - 1)) - base2;
+            if (length2 == 0) {
+                return;
+            }
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+        }
+
+        /**
+         * Merges two adjacent runs by copying the first one aside and merging
+         * forward.
+         */
+        private void mergeLow(int base1, int length1, int base2, int length2) {
+            Object[] tmp = buffer(length1);
+            System.arraycopy(a, base1, tmp, 0, length1);
+            int i = 0;
+            int j = base2;
+            int end2 = base2 + length2;
+            int destination = base1;
+            while (i < length1 && j < end2) {
+                if (compare(a[j], tmp[i]) < 0) {
+                    a[destination++] = a[j++];
+                } else {
+                    a[destination++] = tmp[i++];
+                }
+            }
+            System.arraycopy(tmp, i, a, destination, length1 - i);
+            Arrays.fill(tmp, 0, length1, null);
+        }
+
+        /**
+         * Merges two adjacent runs by copying the second one aside and merging
+         * backward.
+         */
+        private void mergeHigh(int base1, int length1, int base2, int length2) {
+            Object[] tmp = buffer(length2);
+            System.arraycopy(a, base2, tmp, 0, length2);
+            int i = base1 + length1 - 1;
+            int j = length2 - 1;
+            int destination = base2 + length2 - 1;
+            while (i >= base1 && j >= 0) {
+                if (compare(tmp[j], a[i]) < 0) {
+                    a[destination--] = a[i--];
+                } else {
+                    a[destination--] = tmp[j--];
+                }
+            }
+            System.arraycopy(tmp, 0, a, destination - j, j + 1);
+            Arrays.fill(tmp, 0, length2, null);
+        }
+
+        /**
+         * Returns the length of the run starting at {@code from}, reversing it
+         * if it is strictly descending.
+         */
+        private int countRunAndMakeAscending(int from, int to) {
+            int end = from + 1;
+            if (end == to) {
+                return 1;
+            }
+            if (compare(a[end++], a[from]) < 0) {
+                while (end < to && compare(a[end], a[end - 1]) < 0) {
+                    end++;
+                }
+                reverse(from, end);
+            } else {
+                while (end < to && compare(a[end], a[end - 1]) >= 0) {
+                    end++;
+                }
+            }
+            return end - from;
+        }
+
+        /**
+         * Sorts {@code [from, to)} by binary insertion, given that
+         * {@code [from, start)} is already sorted.
+         */
+        private void insertionSort(int from, int to, int start) {
+            for (int i = Math.max(start, from + 1); i < to; i++) {
+                Object pivot = a[i];
+                int position = upperBound(a, from, i, element(i));
+                System.arraycopy(a, position, a, position + 1, i - position);
+                a[position] = pivot;
+            }
+        }
+
+        private void reverse(int from, int to) {
+            for (int i = from, j = to - 1; i < j; i++, j--) {
+                Object t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+
+        /**
+         * Returns the first index in the sorted range whose element is
+         * greater than the key.
+         */
+        private int upperBound(Object[] array, int from, int to, E key) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (compare(key, array[middle]) < 0) {
+                    to = middle;
+                } else {
+                    from = middle + 1;
+                }
+            }
+            return from;
+        }
+
+        /**
+         * Returns the first index in the sorted range whose element is not
+         * less than the key.
+         */
+        private int lowerBound(Object[] array, int from, int to, E key) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (compare(array[middle], key) < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            return from;
+        }
+
+        private Object[] buffer(int length) {
+            if (buffer.length < length) {
+                buffer = new Object[Math.max(length, Math.min(a.length >>> 1, length << 1))];
+            }
+            return buffer;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E element(int index) {
+            return (E) a[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object x, Object y) {
+            return comparator.compare((E) x, (E) y);
+        }
+
+        private static int minRunLength(int n) {
+            int low = 0;
+            while (n >= MIN_MERGE) {
+                low |= n & 1;
+                n >>= 1;
+            }
+            return n + low;
+        }
+    }
+
+    /**
+     * Sorts {@code a[from, to)} in parallel, using the same range of the
+     * buffer, offset by {@code -offset}, as merge space.
+     */
+    private static final class SortTask<E> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a, buffer;
+        private final int from, to, offset;
+        private final Comparator<? super E> comparator;
+
+        SortTask(Object[] a, Object[] buffer, int from, int to, int offset, Comparator<? super E> comparator) {
+            this.a = a;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                sort(a, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask<>(a, buffer, from, middle, offset, comparator),
+                    new SortTask<>(a, buffer, middle, to, offset, comparator));
+            new MergeTask<>(a, from, middle, middle, to, buffer, from - offset, comparator).invoke();
+            System.arraycopy(buffer, from - offset, a, from, to - from);
+            Arrays.fill(buffer, from - offset, to - offset, null);
+        }
+    }
+
+    /**
+     * Stably merges two sorted ranges of the source into the destination,
+     * splitting the larger range at its middle element and the smaller one
+     * at the matching position.
+     */
+    private static final class MergeTask<E> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] source, destination;
+        private final int from1, to1, from2, to2, at;
+        private final Comparator<? super E> comparator;
+
+        MergeTask(Object[] source, int from1, int to1, int from2, int to2, Object[] destination, int at,
+                Comparator<? super E> comparator) {
+            this.source = source;
+            this.from1 = from1;
+            this.to1 = to1;
+            this.from2 = from2;
+            this.to2 = to2;
+            this.destination = destination;
+            this.at = at;
+            this.comparator = comparator;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void compute() {
+            int length1 = to1 - from1;
+            int length2 = to2 - from2;
+            if (length1 + length2 <= PARALLEL_THRESHOLD) {
+                int i = from1;
+                int j = from2;
+                int k = at;
+                while (i < to1 && j < to2) {
+                    if (comparator.compare((E) source[j], (E) source[i]) < 0) {
+                        destination[k++] = source[j++];
+                    } else {
+                        destination[k++] = source[i++];
+                    }
+                }
+                System.arraycopy(source, i, destination, k, to1 - i);
+                System.arraycopy(source, j, destination, k + to1 - i, to2 - j);
+                return;
+            }
+            int split1;
+            int split2;
+            if (length1 >= length2) {
+                split1 = (from1 + to1) >>> 1;
+                E key = (E) source[split1];
+                // elements of the second range equal to the key follow it
+                split2 = from2;
+                for (int high = to2; split2 < high;) {
+                    int middle = (split2 + high) >>> 1;
+                    if (comparator.compare((E) source[middle], key) < 0) {
+                        split2 = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+            } else {
+                split2 = (from2 + to2) >>> 1;
+                E key = (E) source[split2];
+                // elements of the first range equal to the key precede it
+                split1 = from1;
+                for (int high = to1; split1 < high;) {
+                    int middle = (split1 + high) >>> 1;
+                    if (comparator.compare(key, (E) source[middle]) < 0) {
+                        high = middle;
+                    } else {
+                        split1 = middle + 1;
+                    }
+                }
+            }
+            invokeAll(new MergeTask<>(source, from1, split1, from2, split2, destination, at, comparator),
+                    new MergeTask<>(source, split1, to1, split2, to2, destination,
+                            at + (split1 - from1) + (split2 - from2), comparator));
+        }
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the array.
+     */
+    static void sort(int[] a, int from, int to) {
+        if (to - from < RADIX_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        int length = to - from;
+        int[] source = a;
+        int sourceOffset = from;
+        int[] target = new int[length];
+        int targetOffset = 0;
+        int[] counts = new int[256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            // flip the sign bit so that negative values sort first
+            int flip = shift == 24 ? 0x80 : 0;
+            Arrays.fill(counts, 0);
+            for (int i = sourceOffset; i < sourceOffset + length; i++) {
+                counts[((source[i] >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (counts[((source[sourceOffset] >>> shift) & 0xFF) ^ flip] == length) {
+                continue;
+            }
+            for (int i = 0, total = 0; i < 256; i++) {
+                int count = counts[i];
+                counts[i] = total;
+                total += count;
+            }
+            for (int i = sourceOffset; i < sourceOffset + length; i++) {
+                int value = source[i];
+                target[targetOffset + counts[((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+            int swapOffset = sourceOffset;
+            sourceOffset = targetOffset;
+            targetOffset = swapOffset;
+        }
+        if (source != a) {
+            System.arraycopy(source, sourceOffset, a, from, length);
+        }
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the array.
+     */
+    static void sort(long[] a, int from, int to) {
+        if (to - from < RADIX_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        radixSort(a, from, to);
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the array in the order of
+     * {@link Double#compare}.
+     */
+    static void sort(double[] a, int from, int to) {
+        if (to - from < RADIX_THRESHOLD) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        // map the values to longs with the same order, sort and map back;
+        // flipping all but the sign bit of negative values reverses their order
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            long bits = Double.doubleToLongBits(a[i]);
+            keys[i - from] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        radixSort(keys, 0, keys.length);
+        for (int i = from; i < to; i++) {
+            long key = keys[i - from];
+            a[i] = Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+        }
+    }
+
+    private static void radixSort(long[] a, int from, int to) {
+        int length = to - from;
+        long[] source = a;
+        int sourceOffset = from;
+        long[] target = new long[length];
+        int targetOffset = 0;
+        int[] counts = new int[256];
+        for (int shift = 0; shift < 64; shift += 8) {
+            // flip the sign bit so that negative values sort first
+            int flip = shift == 56 ? 0x80 : 0;
+            Arrays.fill(counts, 0);
+            for (int i = sourceOffset; i < sourceOffset + length; i++) {
+                counts[(int) ((source[i] >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (counts[(int) ((source[sourceOffset] >>> shift) & 0xFF) ^ flip] == length) {
+                continue;
+            }
+            for (int i = 0, total = 0; i < 256; i++) {
+                int count = counts[i];
+                counts[i] = total;
+                total += count;
+            }
+            for (int i = sourceOffset; i < sourceOffset + length; i++) {
+                long value = source[i];
+                target[targetOffset + counts[(int) ((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+            int swapOffset = sourceOffset;
+            sourceOffset = targetOffset;
+            targetOffset = swapOffset;
+        }
+        if (source != a) {
+            System.arraycopy(source, sourceOffset, a, from, length);
+        }
+    }
+}
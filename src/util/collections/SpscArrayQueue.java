@@ -0,0 +1,240 @@
+package util.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Holds the producer index, padded away from the fields of the enclosing
+ * object header.
+ */
+abstract class SpscArrayQueueProducerFields {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * Written by the producer only, read by the consumer with acquire
+     * semantics.
+     */
+    long producerIndex;
+    /**
+     * The producer's cached bound on how far it may advance before it has to
+     * read the consumer index again.
+     */
+    long producerLimit;
+}
+
+/**
+ * Keeps the producer and consumer indices on separate cache lines.
+ */
+abstract class SpscArrayQueueConsumerFields extends SpscArrayQueueProducerFields {
+    long p16, p17, p18, p19, p20, p21, p22, p23;
+    long p24, p25, p26, p27, p28, p29, p30, p31;
+
+    /**
+     * Written by the consumer only, read by the producer with acquire
+     * semantics.
+     */
+    long consumerIndex;
+    /**
+     * The consumer's cached copy of the producer index.
+     */
+    long consumerLimit;
+}
+
+/**
+ * Keeps the consumer index away from the fields of the queue itself.
+ */
+abstract class SpscArrayQueuePadding extends SpscArrayQueueConsumerFields {
+    long p32, p33, p34, p35, p36, p37, p38, p39;
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+}
+
+/**
+ * A bounded, lock-free queue for exactly one producer thread and one consumer
+ * thread.
+ * <p>
+ * The queue is a power-of-two ring buffer. The producer and consumer indices
+ * live on separate cache lines and are published with release stores and read
+ * with acquire loads, and each side caches the other side's index so that it
+ * only touches the shared cache line when the cached bound is exhausted. No
+ * operation allocates.
+ * </p>
+ * <p>
+ * {@link #enqueue}, {@link #offer} may only be called from the producer
+ * thread; {@link #dequeue}, {@link #poll}, {@link #peek}, {@link #drainTo} and
+ * {@link #iterator()} may only be called from the consumer thread.
+ * {@link #size()} may be called from any thread and returns an estimate.
+ * </p>
+ * <p>
+ * This queue does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in this queue
+ */
+public final class SpscArrayQueue<E> extends SpscArrayQueuePadding implements Queue<E> {
+    private static final VarHandle PRODUCER_INDEX;
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(SpscArrayQueueProducerFields.class, "producerIndex", long.class);
+            CONSUMER_INDEX = lookup.findVarHandle(SpscArrayQueueConsumerFields.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] buffer;
+    private final int mask;
+
+    /**
+     * Constructs an empty queue with the specified capacity, rounded up to a
+     * power of two.
+     *
+     * @param capacity the capacity
+     */
+    @SuppressWarnings("unchecked")
+    public SpscArrayQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException();
+        }
+        int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = (E[]) new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Adds an element to the end of this queue if there is room.
+     *
+     * @param element the element to add
+     * @return {@code true} if the element was added, {@code false} if this
+     *         queue is full
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long index = producerIndex;
+        if (index >= producerLimit) {
+            producerLimit = (long) CONSUMER_INDEX.getAcquire(this) + buffer.length;
+            if (index >= producerLimit) {
+                return false;
+            }
+        }
+        buffer[(int) index & mask] = element;
+        PRODUCER_INDEX.setRelease(this, index + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the first element of this queue, if there is one.
+     *
+     * @return the first element of this queue, or {@code null} if this queue
+     *         is empty
+     */
+    public E poll() {
+        long index = consumerIndex;
+        if (index >= consumerLimit) {
+            consumerLimit = (long) PRODUCER_INDEX.getAcquire(this);
+            if (index >= consumerLimit) {
+                return null;
+            }
+        }
+        int slot = (int) index & mask;
+        E element = buffer[slot];
+        buffer[slot] = null;
+        CONSUMER_INDEX.setRelease(this, index + 1);
+        return element;
+    }
+
+    /**
+     * Removes up to {@code max} elements from this queue and adds them to the
+     * given collection, publishing the consumed slots to the producer once.
+     * If the collection throws, the elements added before remain removed.
+     *
+     * @param target the collection to add the elements to
+     * @param max    the maximum number of elements to remove
+     * @return the number of elements removed
+     */
+    public int drainTo(Collection<? super E> target, int max) {
+        long index = consumerIndex;
+        long available = (long) PRODUCER_INDEX.getAcquire(this) - index;
+        int count = (int) Math.min(available, Math.max(max, 0));
+        int drained = 0;
+        try {
+            for (; drained < count; drained++) {
+                int slot = (int) (index + drained) & mask;
+                target.add(buffer[slot]);
+                buffer[slot] = null;
+            }
+        } finally {
+            // publish the elements handed over even if the target throws
+            if (drained > 0) {
+                CONSUMER_INDEX.setRelease(this, index + drained);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void enqueue(E element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full");
+        }
+    }
+
+    @Override
+    public E dequeue() throws NoSuchElementException {
+        E element = poll();
+        if (element == null) {
+            throw new NoSuchElementException();
+        }
+        return element;
+    }
+
+    @Override
+    public E peek() throws NoSuchElementException {
+        long index = consumerIndex;
+        if (index >= (long) PRODUCER_INDEX.getAcquire(this)) {
+            throw new NoSuchElementException();
+        }
+        return buffer[(int) index & mask];
+    }
+
+    @Override
+    public int size() {
+        long consumer = (long) CONSUMER_INDEX.getAcquire(this);
+        long producer = (long) PRODUCER_INDEX.getAcquire(this);
+        return (int) Math.max(0, Math.min(buffer.length, producer - consumer));
+    }
+
+    @Override
+    public int maxCapacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class QueueIterator implements Iterator<E> {
+            private long index = consumerIndex;
+            private final long end = (long) PRODUCER_INDEX.getAcquire(SpscArrayQueue.this);
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer[(int) index++ & mask];
+            }
+        }
+
+        return new QueueIterator();
+    }
+}
@@ -0,0 +1,352 @@
+package util.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of the {@link List} interface backed by a balanced tree.
+ * <p>
+ * Elements are kept in an AVL tree ordered by position, where every node
+ * records the size of its subtree. Getting, setting, inserting and removing
+ * an element at any position therefore takes logarithmic time, with no
+ * shifting of elements and no linear walk.
+ * </p>
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class TreeList<E> extends AbstractList<E> implements List<E> {
+    private static final class Node<E> {
+        E value;
+        Node<E> left, right;
+        int height = 1;
+        int size = 1;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Create a {@link TreeList} with the specified elements.
+     *
+     * @param <E>      the type of elements
+     * @param elements the elements
+     * @return a new {@link TreeList}
+     */
+    @SafeVarargs
+    public static <E> TreeList<E> of(E... elements) {
+        Object[] copy = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            copy[i] = elements[i];
+        }
+        TreeList<E> list = new TreeList<>();
+        list.root = build(copy, 0, copy.length);
+        return list;
+    }
+
+    private Node<E> root;
+
+    /**
+     * Create an empty {@link TreeList}.
+     */
+    public TreeList() {
+    }
+
+    /**
+     * Create a {@link TreeList} with the specified iterable.
+     *
+     * @param iterable the iterable
+     */
+    public TreeList(Iterable<E> iterable) {
+        addAll(0, iterable);
+    }
+
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return nodeAt(root, index).value;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node<E> node = nodeAt(root, index);
+        E old = node.value;
+        node.value = element;
+        return old;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        root = insert(root, index, element);
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        E old = nodeAt(root, index).value;
+        root = delete(root, index);
+        return old;
+    }
+
+    /**
+     * Adds all of the elements of the specified iterable at the specified
+     * position in this list. The elements are built into a balanced tree in
+     * linear time and then joined with the two halves of this list.
+     *
+     * @param index    the index at which the first element is to be added
+     * @param iterable the elements to add
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addAll(int index, Iterable<? extends E> iterable) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        ArrayList<E> buffer = new ArrayList<>();
+        for (E element : iterable) {
+            buffer.addLast(element);
+        }
+        if (buffer.isEmpty()) {
+            return;
+        }
+        Object[] elements = new Object[buffer.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = buffer.get(i);
+        }
+        Node<E> inserted = build(elements, 0, elements.length);
+        Node<E>[] parts = (Node<E>[]) new Node<?>[2];
+        split(root, index, parts);
+        root = concat(concat(parts[0], inserted), parts[1]);
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class TreeIterator implements Iterator<E> {
+            @SuppressWarnings("unchecked")
+            private final Node<E>[] stack = (Node<E>[]) new Node<?>[height(root) + 1];
+            private int depth = 0;
+
+            TreeIterator() {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<E> node) {
+                for (; node != null; node = node.left) {
+                    stack[depth++] = node;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = stack[--depth];
+                pushLeft(node.right);
+                return node.value;
+            }
+        }
+
+        return new TreeIterator();
+    }
+
+    /**
+     * Splits the given tree into the trees of its first {@code index}
+     * elements, returned in {@code parts[0]}, and of its remaining elements,
+     * returned in {@code parts[1]}.
+     */
+    private static <E> void split(Node<E> node, int index, Node<E>[] parts) {
+        if (node == null) {
+            parts[0] = null;
+            parts[1] = null;
+            return;
+        }
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+        int leftSize = size(left);
+        if (index <= leftSize) {
+            split(left, index, parts);
+            parts[1] = join(parts[1], node, right);
+        } else {
+            split(right, index - leftSize - 1, parts);
+            parts[0] = join(left, node, parts[0]);
+        }
+    }
+
+    /**
+     * Joins two trees, all elements of {@code left} preceding all elements of
+     * {@code right}.
+     */
+    private static <E> Node<E> concat(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        // use the first element of the right tree as the joining node
+        Node<E> middle = nodeAt(right, 0);
+        return join(left, middle, delete(right, 0));
+    }
+
+    /**
+     * Joins two balanced trees around the given node, rebalancing along the
+     * spine of the taller tree only.
+     */
+    private static <E> Node<E> join(Node<E> left, Node<E> middle, Node<E> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            left.right = join(left.right, middle, right);
+            return balance(left);
+        }
+        if (rightHeight > leftHeight + 1) {
+            right.left = join(left, middle, right.left);
+            return balance(right);
+        }
+        middle.left = left;
+        middle.right = right;
+        update(middle);
+        return middle;
+    }
+
+    private static <E> Node<E> nodeAt(Node<E> node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private static <E> Node<E> delete(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else if (index > leftSize) {
+            node.right = delete(node.right, index - leftSize - 1);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // replace with the first node of the right subtree
+            Node<E> successor = nodeAt(node.right, 0);
+            successor.right = delete(node.right, 0);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static <E> Node<E> insert(Node<E> node, int index, E element) {
+        if (node == null) {
+            return new Node<>(element);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, element);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, element);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Builds a perfectly balanced tree of the given elements.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> build(Object[] elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node<E> node = new Node<>((E) elements[middle]);
+        node.left = build(elements, from, middle);
+        node.right = build(elements, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    private static <E> Node<E> balance(Node<E> node) {
+        update(node);
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (difference < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
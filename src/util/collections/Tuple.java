@@ -1,29 +1,64 @@
 package util.collections;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  * An immutable tuple.
+ * <p>
+ * A tuple is a persistent vector: elements are stored in the leaves of a
+ * 32-way trie followed by a tail buffer of up to 32 elements. The trie keeps
+ * an origin offset so that it can grow and shrink at the front as well as at
+ * the back. Every operation that returns a new tuple copies only the path to
+ * the changed leaf and shares the rest of the structure with this tuple, so
+ * {@link #set}, {@link #addFirst}, {@link #addLast}, {@link #removeFirst} and
+ * {@link #removeLast} take O(log32 n) time and space. Inserting or removing in
+ * the middle rebuilds the tuple in a single pass.
+ * </p>
  * 
  * @param <E> the type of elements in the tuple
  */
 public class Tuple<E> extends AbstractList<E> {
 
-    private final static Tuple<?> EMPTY = new Tuple<>(new Object[0], false);
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[0];
 
-    private final E[] array;
+    private final static Tuple<?> EMPTY = new Tuple<>(null, 0, 0, 0, EMPTY_NODE);
 
-    private Tuple(E[] array, boolean makeCopy) {
-        Objects.requireNonNull(array);
-        if (makeCopy) {
-            this.array = Arrays.copyOf(array, array.length);
-        } else {
-            this.array = array;
-        }
+    /**
+     * The root of the trie, or {@code null} if all elements are in the tail.
+     */
+    private final Object[] root;
+    /**
+     * The level of the root; leaves are at level 0.
+     */
+    private final int shift;
+    /**
+     * The trie index of the first element. The trie index of the end of the
+     * trie, {@code origin + treeSize}, is always a multiple of 32.
+     */
+    private final int origin;
+    private final int treeSize;
+    private final Object[] tail;
+
+    private Tuple(Object[] root, int shift, int origin, int treeSize, Object[] tail) {
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.treeSize = treeSize;
+        this.tail = tail;
+    }
+
+    private Tuple(Tuple<E> other) {
+        this(other.root, other.shift, other.origin, other.treeSize, other.tail);
     }
 
     /**
@@ -31,32 +66,33 @@ public class Tuple<E> extends AbstractList<E> {
      * 
      * @param iterable the iterable
      */
-    @SuppressWarnings("unchecked")
     public Tuple(Iterable<E> iterable) {
-        ReadOnlyCollection<E> collection;
-        if (iterable instanceof ReadOnlyCollection<E> c) {
-            collection = c;
-        } else {
-            collection = new LinkedList<>(iterable);
-        }
-        this.array = (E[]) new Object[collection.size()];
-        int i = 0;
-        for (E element : collection) {
-            this.array[i++] = element;
+        this(copyOf(iterable));
+    }
+
+    private static <E> Tuple<E> copyOf(Iterable<E> iterable) {
+        if (iterable instanceof Tuple<E> tuple) {
+            return tuple;
         }
+        return new Builder<E>().addAll(iterable).build();
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public E get(int index) throws IndexOutOfBoundsException {
-        if (index < 0 || index >= array.length) {
+        if (index < 0 || index >= size()) {
             throw new IndexOutOfBoundsException();
         }
-        return array[index];
+        if (index >= treeSize) {
+            return (E) tail[index - treeSize];
+        }
+        int i = origin + index;
+        return (E) leafFor(i)[i & MASK];
     }
 
     @Override
     public int size() {
-        return array.length;
+        return treeSize + tail.length;
     }
 
     /**
@@ -66,9 +102,13 @@ public class Tuple<E> extends AbstractList<E> {
      * @param value the elements
      * @return a new {@link Tuple} with the given elements
      */
-    @SuppressWarnings("unchecked")
+    @SafeVarargs
     public static <E> Tuple<E> of(E... value) {
-        return new Tuple<>(value, true);
+        Builder<E> builder = new Builder<>();
+        for (E element : value) {
+            builder.add(element);
+        }
+        return builder.build();
     }
 
     /**
@@ -82,6 +122,93 @@ public class Tuple<E> extends AbstractList<E> {
         return (Tuple<E>) EMPTY;
     }
 
+    /**
+     * Create a new {@link Builder} for building a {@link Tuple} incrementally.
+     * 
+     * @param <E> the type of elements
+     * @return a new, empty {@link Builder}
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * A mutable builder for {@link Tuple}s.
+     * <p>
+     * Elements are appended directly into the leaves of the trie, so
+     * {@link #build()} only has to link the full leaves together and copy the
+     * last, partially filled leaf. The builder may be reused after building;
+     * tuples that were already built are not affected.
+     * </p>
+     * 
+     * @param <E> the type of elements
+     */
+    public static final class Builder<E> {
+        private Object[] leaves = new Object[4];
+        private int leafCount;
+        private Object[] current = new Object[WIDTH];
+        private int currentSize;
+
+        /**
+         * Create an empty {@link Builder}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Appends an element to this builder.
+         * 
+         * @param element the element to add
+         * @return this builder
+         */
+        public Builder<E> add(E element) {
+            current[currentSize++] = element;
+            if (currentSize == WIDTH) {
+                if (leafCount == leaves.length) {
+                    leaves = Arrays.copyOf(leaves, leafCount << 1);
+                }
+                leaves[leafCount++] = current;
+                current = new Object[WIDTH];
+                currentSize = 0;
+            }
+            return this;
+        }
+
+        /**
+         * Appends all elements of the given iterable to this builder.
+         * 
+         * @param iterable the elements to add
+         * @return this builder
+         */
+        public Builder<E> addAll(Iterable<? extends E> iterable) {
+            for (E element : iterable) {
+                add(element);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of elements added to this builder.
+         * 
+         * @return the number of elements added to this builder
+         */
+        public int size() {
+            return (leafCount << BITS) + currentSize;
+        }
+
+        /**
+         * Returns a {@link Tuple} containing the elements added so far.
+         * 
+         * @return a new {@link Tuple}
+         */
+        public Tuple<E> build() {
+            if (leafCount == 0 && currentSize == 0) {
+                return of();
+            }
+            return fromLeaves(leaves, leafCount, Arrays.copyOf(current, currentSize));
+        }
+    }
+
     /**
      * Returns a new tuple with the given element inserted at the given index.
      * 
@@ -90,13 +217,25 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the element inserted at the given index
      */
     public Tuple<E> add(int index, E element) {
-        if (index < 0 || index > array.length) {
+        int size = size();
+        if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException();
         }
-        E[] newArray = Arrays.copyOf(array, array.length + 1);
-        System.arraycopy(array, index, newArray, index + 1, array.length - index);
-        newArray[index] = element;
-        return new Tuple<>(newArray, false);
+        if (index == 0) {
+            return addFirst(element);
+        }
+        if (index == size) {
+            return addLast(element);
+        }
+        Builder<E> builder = new Builder<>();
+        int i = 0;
+        for (E e : this) {
+            if (i++ == index) {
+                builder.add(element);
+            }
+            builder.add(e);
+        }
+        return builder.build();
     }
 
     /**
@@ -106,7 +245,39 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the element added to the start
      */
     public Tuple<E> addFirst(E element) {
-        return add(0, element);
+        if (treeSize == 0 && tail.length < WIDTH) {
+            Object[] newTail = new Object[tail.length + 1];
+            newTail[0] = element;
+            System.arraycopy(tail, 0, newTail, 1, tail.length);
+            return new Tuple<>(null, 0, 0, 0, newTail);
+        }
+        Object[] newRoot = root;
+        int newShift = shift;
+        int newOrigin = origin;
+        int newTreeSize = treeSize;
+        Object[] newTail = tail;
+        if (newTreeSize == 0) {
+            // the full tail becomes the only leaf of the trie
+            newRoot = tail;
+            newShift = 0;
+            newOrigin = 0;
+            newTreeSize = WIDTH;
+            newTail = EMPTY_NODE;
+        }
+        if (newOrigin == 0) {
+            // no room at the front; add a level and hang the trie off slot 1
+            if (newShift + BITS > 30) {
+                throw new IllegalStateException("Tuple is full");
+            }
+            Object[] node = new Object[WIDTH];
+            node[1] = newRoot;
+            newRoot = node;
+            newOrigin = 1 << (newShift + BITS);
+            newShift += BITS;
+        }
+        newOrigin--;
+        newRoot = assoc(newRoot, newShift, newOrigin, element, 0);
+        return new Tuple<>(newRoot, newShift, newOrigin, newTreeSize + 1, newTail);
     }
 
     /**
@@ -116,7 +287,25 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the element added to the end
      */
     public Tuple<E> addLast(E element) {
-        return add(array.length, element);
+        if (tail.length < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new Tuple<>(root, shift, origin, treeSize, newTail);
+        }
+        // push the full tail into the trie as a new leaf
+        if (treeSize == 0) {
+            return new Tuple<>(tail, 0, 0, WIDTH, new Object[] { element });
+        }
+        int end = origin + treeSize;
+        Object[] newRoot = root;
+        int newShift = shift;
+        if (end >= 1L << (shift + BITS)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newShift += BITS;
+        }
+        newRoot = assoc(newRoot, newShift, end, tail, BITS);
+        return new Tuple<>(newRoot, newShift, origin, treeSize + WIDTH, new Object[] { element });
     }
 
     /**
@@ -126,12 +315,24 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the element removed at the given index
      */
     public Tuple<E> remove(int index) {
-        if (index < 0 || index >= array.length) {
+        int size = size();
+        if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
         }
-        E[] newArray = Arrays.copyOf(array, array.length - 1);
-        System.arraycopy(array, index + 1, newArray, index, array.length - index - 1);
-        return new Tuple<>(newArray, false);
+        if (index == 0) {
+            return removeFirst();
+        }
+        if (index == size - 1) {
+            return removeLast();
+        }
+        Builder<E> builder = new Builder<>();
+        int i = 0;
+        for (E e : this) {
+            if (i++ != index) {
+                builder.add(e);
+            }
+        }
+        return builder.build();
     }
 
     /**
@@ -140,10 +341,17 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the first element removed
      */
     public Tuple<E> removeFirst() {
-        if (array.length == 0) {
+        if (isEmpty()) {
             throw new NoSuchElementException();
         }
-        return remove(0);
+        if (treeSize == 0) {
+            return new Tuple<>(null, 0, 0, 0, Arrays.copyOfRange(tail, 1, tail.length));
+        }
+        if (treeSize == 1) {
+            return new Tuple<>(null, 0, 0, 0, tail);
+        }
+        Object[] newRoot = without(root, shift, origin, 0);
+        return normalize(newRoot, shift, origin + 1, treeSize - 1, tail);
     }
 
     /**
@@ -152,10 +360,22 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the last element removed
      */
     public Tuple<E> removeLast() {
-        if (array.length == 0) {
+        if (isEmpty()) {
             throw new NoSuchElementException();
         }
-        return remove(array.length - 1);
+        if (tail.length > 0) {
+            return new Tuple<>(root, shift, origin, treeSize, Arrays.copyOf(tail, tail.length - 1));
+        }
+        // pull the last leaf of the trie out as the new tail
+        int leafStart = origin + treeSize - WIDTH;
+        int from = Math.max(origin, leafStart) - leafStart;
+        Object[] newTail = Arrays.copyOfRange(leafFor(leafStart), from, WIDTH - 1);
+        int taken = WIDTH - from;
+        if (taken == treeSize) {
+            return new Tuple<>(null, 0, 0, 0, newTail);
+        }
+        Object[] newRoot = without(root, shift, leafStart, BITS);
+        return normalize(newRoot, shift, origin, treeSize - taken, newTail);
     }
 
     /**
@@ -166,12 +386,56 @@ public class Tuple<E> extends AbstractList<E> {
      * @return the new tuple with the element set at the given index
      */
     public Tuple<E> set(int index, E element) {
-        if (index < 0 || index >= array.length) {
+        if (index < 0 || index >= size()) {
             throw new IndexOutOfBoundsException();
         }
-        E[] newArray = Arrays.copyOf(array, array.length);
-        newArray[index] = element;
-        return new Tuple<>(newArray, false);
+        if (index >= treeSize) {
+            Object[] newTail = tail.clone();
+            newTail[index - treeSize] = element;
+            return new Tuple<>(root, shift, origin, treeSize, newTail);
+        }
+        return new Tuple<>(assoc(root, shift, origin + index, element, 0), shift, origin, treeSize, tail);
+    }
+
+    /**
+     * Returns a new tuple with the elements of this tuple sorted by their
+     * natural ordering. The sort is stable.
+     *
+     * @return the new, sorted tuple
+     * @throws ClassCastException if the elements are not mutually comparable
+     */
+    public Tuple<E> sorted() {
+        return sorted(null);
+    }
+
+    /**
+     * Returns a new tuple with the elements of this tuple sorted by the given
+     * comparator. The elements are sorted in one flat copy, which is then cut
+     * into the leaves of the new tuple. The sort is stable.
+     *
+     * @param comparator the comparator, or {@code null} to use the natural
+     *                   ordering of the elements
+     * @return the new, sorted tuple
+     */
+    @SuppressWarnings("unchecked")
+    public Tuple<E> sorted(Comparator<? super E> comparator) {
+        int size = size();
+        if (size < 2) {
+            return this;
+        }
+        Object[] elements = new Object[size];
+        int i = 0;
+        for (E element : this) {
+            elements[i++] = element;
+        }
+        Sorting.sort(elements, 0, size, comparator != null ? comparator
+                : (Comparator<? super E>) Comparator.naturalOrder());
+        int leafCount = size >>> BITS;
+        Object[] leaves = new Object[leafCount];
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            leaves[leaf] = Arrays.copyOfRange(elements, leaf << BITS, (leaf + 1) << BITS);
+        }
+        return fromLeaves(leaves, leafCount, Arrays.copyOfRange(elements, leafCount << BITS, size));
     }
 
     @Override
@@ -196,22 +460,195 @@ public class Tuple<E> extends AbstractList<E> {
     public Iterator<E> iterator() {
         class TupleIterator implements Iterator<E> {
             private int i = 0;
+            private Object[] leaf;
 
             @Override
             public boolean hasNext() {
-                return i < array.length;
+                return i < size();
             }
 
+            @SuppressWarnings("unchecked")
             @Override
             public E next() {
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return array[i++];
+                if (i >= treeSize) {
+                    return (E) tail[i++ - treeSize];
+                }
+                int index = origin + i++;
+                if (leaf == null || (index & MASK) == 0) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index & MASK];
             }
         }
 
         return new TupleIterator();
     }
 
+    /**
+     * Returns a {@link Spliterator} over the elements of this tuple that splits
+     * by index into halves of known size and walks the trie one leaf at a
+     * time.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        class TupleSpliterator implements Spliterator<E> {
+            private int index;
+            private final int fence;
+
+            TupleSpliterator(int index, int fence) {
+                this.index = index;
+                this.fence = fence;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                if (index >= fence) {
+                    return false;
+                }
+                action.accept(get(index++));
+                return true;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void forEachRemaining(Consumer<? super E> action) {
+                int i = index;
+                index = fence;
+                while (i < fence && i < treeSize) {
+                    int trieIndex = origin + i;
+                    Object[] leaf = leafFor(trieIndex);
+                    int end = Math.min(fence, Math.min(treeSize, i + WIDTH - (trieIndex & MASK)));
+                    for (; i < end; i++) {
+                        action.accept((E) leaf[(origin + i) & MASK]);
+                    }
+                }
+                for (; i < fence; i++) {
+                    action.accept((E) tail[i - treeSize]);
+                }
+            }
+
+            @Override
+            public Spliterator<E> trySplit() {
+                int middle = (index + fence) >>> 1;
+                if (middle <= index) {
+                    return null;
+                }
+                Spliterator<E> prefix = new TupleSpliterator(index, middle);
+                index = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return fence - index;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+            }
+        }
+
+        return new TupleSpliterator(0, size());
+    }
+
+    /**
+     * Returns the leaf of the trie holding the given trie index.
+     */
+    private Object[] leafFor(int index) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * Builds a tuple from the given full leaves followed by the given tail.
+     */
+    private static <E> Tuple<E> fromLeaves(Object[] leaves, int count, Object[] tail) {
+        if (count == 0) {
+            return new Tuple<>(null, 0, 0, 0, tail);
+        }
+        int treeSize = count << BITS;
+        Object[] nodes = leaves;
+        int shift = 0;
+        while (count > 1) {
+            int parents = (count + MASK) >>> BITS;
+            Object[] next = new Object[parents];
+            for (int p = 0; p < parents; p++) {
+                Object[] node = new Object[WIDTH];
+                System.arraycopy(nodes, p << BITS, node, 0, Math.min(WIDTH, count - (p << BITS)));
+                next[p] = node;
+            }
+            nodes = next;
+            count = parents;
+            shift += BITS;
+        }
+        return new Tuple<>((Object[]) nodes[0], shift, 0, treeSize, tail);
+    }
+
+    /**
+     * Returns a copy of the given node with the slot for the given trie index
+     * at the target level replaced, copying the path and creating missing
+     * nodes on the way down.
+     */
+    private static Object[] assoc(Object[] node, int level, int index, Object value, int targetLevel) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int slot = (index >>> level) & MASK;
+        if (level == targetLevel) {
+            copy[slot] = value;
+        } else {
+            copy[slot] = assoc((Object[]) copy[slot], level - BITS, index, value, targetLevel);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the given node with the slot for the given trie index
+     * at the target level cleared, or {@code null} if the copy would be empty.
+     * Elements are only ever cleared from the front of the trie.
+     */
+    private static Object[] without(Object[] node, int level, int index, int targetLevel) {
+        Object[] copy = node.clone();
+        int slot = (index >>> level) & MASK;
+        if (level == targetLevel) {
+            copy[slot] = null;
+            if (level == 0) {
+                // leaves may hold null elements; a leaf trimmed from the front
+                // is empty once its last slot is cleared
+                return slot == MASK ? null : copy;
+            }
+        } else {
+            copy[slot] = without((Object[]) copy[slot], level - BITS, index, targetLevel);
+        }
+        for (Object child : copy) {
+            if (child != null) {
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes root levels that have a single child in use, keeping the trie
+     * indices small no matter how often the tuple is trimmed at the front.
+     */
+    private static <E> Tuple<E> normalize(Object[] root, int shift, int origin, int treeSize, Object[] tail) {
+        while (shift > 0) {
+            int first = (origin >>> shift) & MASK;
+            int last = ((origin + treeSize - 1) >>> shift) & MASK;
+            if (first != last) {
+                break;
+            }
+            root = (Object[]) root[first];
+            origin -= first << shift;
+            shift -= BITS;
+        }
+        return new Tuple<>(root, shift, origin, treeSize, tail);
+    }
+
 }
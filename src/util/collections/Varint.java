@@ -0,0 +1,69 @@
+package util.collections;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length encoding of integers, seven bits per byte with the high bit
+ * set on every byte but the last. Signed values are zigzag encoded first, so
+ * that values close to zero take few bytes regardless of their sign.
+ */
+final class Varint {
+    private Varint() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Returns the number of bytes of the unsigned encoding of the value.
+     */
+    static int size(long value) {
+        // one byte per started group of seven bits, at least one byte
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Writes the unsigned encoding of the value at the given offset and
+     * returns the number of bytes written.
+     */
+    static int write(ByteBuffer buffer, int offset, long value) {
+        int i = offset;
+        while ((value & ~0x7FL) != 0) {
+            buffer.put(i++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(i++, (byte) value);
+        return i - offset;
+    }
+
+    /**
+     * Reads an unsigned encoded value at the given offset.
+     */
+    static long read(ByteBuffer buffer, int offset) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(offset++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Returns the number of bytes of the encoded value at the given offset.
+     */
+    static int sizeAt(ByteBuffer buffer, int offset) {
+        int i = offset;
+        while (buffer.get(i) < 0) {
+            i++;
+        }
+        return i - offset + 1;
+    }
+}
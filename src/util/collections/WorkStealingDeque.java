@@ -0,0 +1,293 @@
+package util.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A Chase-Lev work-stealing deque.
+ * <p>
+ * One owner thread adds and removes elements at the end of the deque with
+ * {@link #addLast} and {@link #removeLast}, which only need a compare-and-set
+ * when they race with a thief for the last remaining element. Any number of
+ * other threads may concurrently take elements from the start with
+ * {@link #steal()}. The backing ring buffer doubles in size when full and is
+ * never copied by thieves.
+ * </p>
+ * <p>
+ * As the owner works on the end of the deque, {@link #push} and {@link #pop}
+ * operate on the end rather than the start, while {@link #enqueue} and
+ * {@link #dequeue} keep their first-in-first-out meaning, with
+ * {@link #dequeue} stealing. Adding at the start is not supported.
+ * </p>
+ * <p>
+ * This deque does not permit {@code null} elements.
+ * </p>
+ *
+ * @param <E> the type of elements in this deque
+ */
+public final class WorkStealingDeque<E> implements Deque<E> {
+    private static final VarHandle TOP;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The index of the first element; advanced by thieves and, for the last
+     * element, by the owner, always with compare-and-set.
+     */
+    private volatile long top;
+    /**
+     * The index after the last element; written by the owner only.
+     */
+    private volatile long bottom;
+    private volatile E[] array;
+
+    /**
+     * Constructs an empty deque with an initial capacity of 64.
+     */
+    public WorkStealingDeque() {
+        this(64);
+    }
+
+    /**
+     * Constructs an empty deque with the specified initial capacity, rounded
+     * up to a power of two.
+     *
+     * @param capacity the initial capacity
+     */
+    @SuppressWarnings("unchecked")
+    public WorkStealingDeque(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException();
+        }
+        array = (E[]) new Object[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+    }
+
+    /**
+     * Adds an element to the end of this deque. May only be called by the
+     * owner thread.
+     *
+     * @param element the element to add
+     */
+    @Override
+    public void addLast(E element) {
+        Objects.requireNonNull(element);
+        long b = bottom;
+        long t = top;
+        E[] a = array;
+        if (b - t >= a.length) {
+            a = grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = element;
+        bottom = b + 1;
+    }
+
+    /**
+     * Removes and returns the last element of this deque. May only be called
+     * by the owner thread.
+     *
+     * @return the last element of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    @Override
+    public E removeLast() throws NoSuchElementException {
+        long b = bottom - 1;
+        E[] a = array;
+        // the volatile store to bottom must be ordered before the load of top
+        // so that a thief and the owner never both take the last element
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            bottom = b + 1;
+            throw new NoSuchElementException();
+        }
+        int slot = (int) b & (a.length - 1);
+        E element = a[slot];
+        if (t == b) {
+            // last element: race the thieves for it
+            boolean won = TOP.compareAndSet(this, t, t + 1);
+            bottom = b + 1;
+            if (!won) {
+                throw new NoSuchElementException();
+            }
+            // the deque is empty now, so no thief reads the slot
+            a[slot] = null;
+            return element;
+        }
+        a[slot] = null;
+        return element;
+    }
+
+    /**
+     * Removes and returns the first element of this deque. May be called by
+     * any thread.
+     *
+     * @return the first element of this deque, or {@code null} if this deque
+     *         is empty or another thread took the first element first
+     */
+    public E steal() {
+        long t = top;
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        E[] a = array;
+        int slot = (int) t & (a.length - 1);
+        E element = a[slot];
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        // release the element, unless the owner has since wrapped around and
+        // refilled the slot
+        SLOTS.compareAndSet(a, slot, element, null);
+        E[] current = array;
+        if (current != a) {
+            SLOTS.compareAndSet(current, (int) t & (current.length - 1), element, null);
+        }
+        return element;
+    }
+
+    /**
+     * Removes and returns the first element of this deque, retrying
+     * {@link #steal()} until it succeeds or the deque is empty.
+     *
+     * @return the first element of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    @Override
+    public E removeFirst() throws NoSuchElementException {
+        while (true) {
+            E element = steal();
+            if (element != null) {
+                return element;
+            }
+            if (top >= bottom) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    /**
+     * Not supported; elements can only be added at the end of this deque.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Adds an element to the end of this deque. May only be called by the
+     * owner thread.
+     *
+     * @param element the element to add
+     */
+    @Override
+    public void push(E element) {
+        addLast(element);
+    }
+
+    /**
+     * Removes and returns the last element of this deque. May only be called
+     * by the owner thread.
+     *
+     * @return the last element of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    @Override
+    public E pop() throws NoSuchElementException {
+        return removeLast();
+    }
+
+    @Override
+    public E peek() throws NoSuchElementException {
+        return getLast();
+    }
+
+    @Override
+    public E getFirst() throws NoSuchElementException {
+        while (true) {
+            long t = top;
+            long b = bottom;
+            if (t >= b) {
+                throw new NoSuchElementException();
+            }
+            E[] a = array;
+            E element = a[(int) t & (a.length - 1)];
+            if (element != null && t == top) {
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Returns the last element of this deque. May only be called by the owner
+     * thread.
+     *
+     * @return the last element of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    @Override
+    public E getLast() throws NoSuchElementException {
+        long b = bottom;
+        if (top >= b) {
+            throw new NoSuchElementException();
+        }
+        E[] a = array;
+        return a[(int) (b - 1) & (a.length - 1)];
+    }
+
+    @Override
+    public int size() {
+        long t = top;
+        long b = bottom;
+        return (int) Math.max(0, b - t);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        class DequeIterator implements Iterator<E> {
+            private long index = top;
+            private final long end = bottom;
+            private final E[] a = array;
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return a[(int) index++ & (a.length - 1)];
+            }
+        }
+
+        return new DequeIterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E[] grow(E[] a, long t, long b) {
+        if (a.length == 1 << 30) {
+            throw new IllegalStateException("Deque is full");
+        }
+        E[] grown = (E[]) new Object[a.length << 1];
+        for (long i = t; i < b; i++) {
+            grown[(int) i & (grown.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        array = grown;
+        return grown;
+    }
+}